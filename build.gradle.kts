@@ -2,6 +2,8 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.4.4"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
+	id("org.graalvm.buildtools.native") version "0.10.6" apply false
 }
 
 group = "sh.abijith"
@@ -13,6 +15,8 @@ java {
 	}
 }
 
+val loadTest by sourceSets.creating
+
 configurations {
 	compileOnly {
 		extendsFrom(configurations.annotationProcessor.get())
@@ -31,12 +35,23 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-security")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.cloud:spring-cloud-starter-openfeign")
+	implementation("io.github.openfeign:feign-hc5")
+	implementation("io.github.resilience4j:resilience4j-circuitbreaker:2.2.0")
+	implementation("io.github.resilience4j:resilience4j-bulkhead:2.2.0")
+	implementation("io.github.resilience4j:resilience4j-micrometer:2.2.0")
+	implementation("io.github.resilience4j:resilience4j-reactor:2.2.0")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework.boot:spring-boot-starter-webflux")
 	implementation("de.codecentric:spring-boot-admin-starter-client")
 	implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client")
 	implementation("org.springframework.boot:spring-boot-starter-data-mongodb")
+	implementation("org.springframework.boot:spring-boot-starter-data-mongodb-reactive")
 	implementation("org.springframework.cloud:spring-cloud-starter-config")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("io.lettuce:lettuce-core")
+	implementation("org.bouncycastle:bcprov-jdk18on:1.80")
 	implementation("io.jsonwebtoken:jjwt-api:0.11.5")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	runtimeOnly("io.jsonwebtoken:jjwt-impl:0.11.5")
 	runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.11.5")
 	compileOnly("org.projectlombok:lombok")
@@ -44,6 +59,11 @@ dependencies {
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.security:spring-security-test")
+	testImplementation("org.springframework.boot:spring-boot-testcontainers")
+	testImplementation("org.testcontainers:junit-jupiter")
+	testImplementation("org.testcontainers:mongodb")
+	testImplementation("org.awaitility:awaitility")
+	testImplementation("io.projectreactor:reactor-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
@@ -57,3 +77,79 @@ dependencyManagement {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Drives HTTP load against a running instance; pass options with --args."
+	classpath = loadTest.runtimeClasspath
+	mainClass = "sh.abijith.authservice.loadtest.AuthLoadTest"
+}
+
+tasks.register<JavaExec>("startupTime") {
+	group = "verification"
+	description = "Launches the service repeatedly and reports time to first response and first login; pass options with --args."
+	classpath = loadTest.runtimeClasspath
+	mainClass = "sh.abijith.authservice.loadtest.StartupProbe"
+}
+
+// Native image: ./gradlew -Pnative nativeCompile
+if (hasProperty("native")) {
+	apply(plugin = "org.graalvm.buildtools.native")
+
+	configure<org.graalvm.buildtools.gradle.dsl.GraalVMExtension> {
+		metadataRepository {
+			enabled = true
+		}
+		binaries.named("main") {
+			imageName = "auth-service"
+			buildArgs.add("-H:+ReportExceptionStackTraces")
+		}
+	}
+
+	// Refresh scope cannot be used in a native image, so the AOT-processed context is built without it.
+	tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+		systemProperty("spring.cloud.refresh.enabled", "false")
+	}
+}
+
+// AppCDS: ./gradlew cdsArchive, then run build/cds with -XX:SharedArchiveFile=application.jsa
+val cdsDir = layout.buildDirectory.dir("cds")
+val javaLauncher = javaToolchains.launcherFor(java.toolchain).map { it.executablePath.asFile.absolutePath }
+
+tasks.register<Exec>("cdsExtract") {
+	group = "build"
+	description = "Extracts the boot jar into build/cds, the unpacked layout that a CDS archive can cover."
+	dependsOn(tasks.bootJar)
+	doFirst {
+		delete(cdsDir)
+		commandLine(javaLauncher.get(), "-Djarmode=tools", "-jar", tasks.bootJar.get().archiveFile.get().asFile.absolutePath,
+			"extract", "--destination", cdsDir.get().asFile.absolutePath)
+	}
+}
+
+tasks.register<Exec>("cdsArchive") {
+	group = "build"
+	description = "Starts the extracted application until the context is refreshed and dumps build/cds/application.jsa."
+	dependsOn("cdsExtract")
+	workingDir(cdsDir)
+	doFirst {
+		commandLine(javaLauncher.get(),
+			"-XX:ArchiveClassesAtExit=application.jsa",
+			"-Dspring.context.exit=onRefresh",
+			"-jar", tasks.bootJar.get().archiveFileName.get(),
+			"--spring.cloud.config.enabled=false",
+			"--eureka.client.enabled=false",
+			"--spring.boot.admin.client.enabled=false")
+	}
+}
+
+jmh {
+	benchmarkMode = listOf("thrpt")
+	fork = 1
+	warmupIterations = 2
+	iterations = 3
+	profilers = listOf("gc")
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+	(findProperty("jmhIncludes") as String?)?.let { includes = listOf(it) }
+}
@@ -0,0 +1,151 @@
+package sh.abijith.authservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import sh.abijith.authservice.config.JwtCacheProperties;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.config.RefreshTokenProperties;
+import sh.abijith.authservice.config.TokenRevocationProperties;
+import sh.abijith.authservice.config.TokenValidationProperties;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.SigningKey;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.repository.RefreshTokenRepository;
+import sh.abijith.authservice.repository.RevokedRefreshFamilyRepository;
+import sh.abijith.authservice.repository.SigningKeyRepository;
+import sh.abijith.authservice.repository.TokenRevocationRepository;
+import sh.abijith.authservice.service.RefreshTokenService;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.DisabledIntrospectionCache;
+import sh.abijith.authservice.util.JwtService;
+import sh.abijith.authservice.util.SigningKeyRing;
+import sh.abijith.authservice.util.TokenDenyList;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Builds the services under benchmark without a Spring context.
+ */
+final class BenchmarkFixtures {
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(int cacheEntries) {
+        return jwtService(cacheEntries, "HS256");
+    }
+
+    static JwtService jwtService(int cacheEntries, String algorithm) {
+        return jwtService(cacheEntries, signingKeyRing(algorithm));
+    }
+
+    static JwtService jwtService(int cacheEntries, SigningKeyRing signingKeyRing) {
+        var cacheProperties = new JwtCacheProperties();
+        cacheProperties.setMaxEntries(cacheEntries);
+        return jwtService(cacheProperties, signingKeyRing);
+    }
+
+    static JwtService jwtService(JwtCacheProperties cacheProperties, SigningKeyRing signingKeyRing) {
+        var jwtService = new JwtService(new JwtProperties(), cacheProperties, new TokenValidationProperties(),
+                signingKeyRing, tokenDenyList(), new DisabledIntrospectionCache(),
+                new AuthMetrics(new SimpleMeterRegistry()), new SimpleMeterRegistry(), Clock.systemUTC());
+        jwtService.init();
+        return jwtService;
+    }
+
+    /**
+     * Builds an empty deny list whose token store accepts writes.
+     */
+    static TokenDenyList tokenDenyList() {
+        Class<TokenRevocationRepository> type = TokenRevocationRepository.class;
+        var revocationRepository = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll", "findByRevokedAtGreaterThanEqual" -> List.of();
+                    case "save" -> args[0];
+                    default -> throw new UnsupportedOperationException("TokenRevocationRepository." + method.getName());
+                }));
+
+        var tokenDenyList = new TokenDenyList(revocationRepository, new TokenRevocationProperties(),
+                Clock.systemUTC(), new SimpleMeterRegistry());
+        tokenDenyList.init();
+        return tokenDenyList;
+    }
+
+    /**
+     * Builds a refresh token service whose token store accepts writes and holds no revocations.
+     */
+    static RefreshTokenService refreshTokenService(JwtService jwtService) {
+        Class<RefreshTokenRepository> tokens = RefreshTokenRepository.class;
+        Class<RevokedRefreshFamilyRepository> families = RevokedRefreshFamilyRepository.class;
+        var refreshTokenRepository = tokens.cast(Proxy.newProxyInstance(tokens.getClassLoader(), new Class<?>[]{tokens},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "insert" -> args[0];
+                    case "markUsed" -> true;
+                    default -> throw new UnsupportedOperationException("RefreshTokenRepository." + method.getName());
+                }));
+        var revokedFamilyRepository = families.cast(Proxy.newProxyInstance(families.getClassLoader(), new Class<?>[]{families},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll", "findByRevokedAtGreaterThanEqual" -> List.of();
+                    default -> throw new UnsupportedOperationException("RevokedRefreshFamilyRepository." + method.getName());
+                }));
+
+        var refreshTokenService = new RefreshTokenService(refreshTokenRepository, revokedFamilyRepository,
+                jwtService, new RefreshTokenProperties(), new JwtProperties(), new SimpleMeterRegistry(), Clock.systemUTC());
+        refreshTokenService.init();
+        return refreshTokenService;
+    }
+
+    /**
+     * Builds a key ring for the given algorithm, backed by an in-memory key store.
+     */
+    static SigningKeyRing signingKeyRing(String algorithm) {
+        var signingProperties = new JwtSigningProperties();
+        signingProperties.setAlgorithm(algorithm);
+
+        var signingKeyRing = new SigningKeyRing(signingProperties, inMemorySigningKeys(), Clock.systemUTC());
+        setField(signingKeyRing, "secret", SECRET);
+        signingKeyRing.init();
+        return signingKeyRing;
+    }
+
+    static User user(String email, String passwordHash) {
+        var user = new User();
+        user.setEmail(email);
+        user.setPassword(passwordHash);
+        user.setRoles(EnumSet.of(Role.USER, Role.ADMIN));
+        return user;
+    }
+
+    private static SigningKeyRepository inMemorySigningKeys() {
+        List<SigningKey> keys = new ArrayList<>();
+        Class<SigningKeyRepository> type = SigningKeyRepository.class;
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "insert" -> {
+                        keys.add((SigningKey) args[0]);
+                        yield args[0];
+                    }
+                    case "findByExpiresAtAfterOrderByActivateAtDesc" -> keys.stream()
+                            .sorted(Comparator.comparing(SigningKey::getActivateAt).reversed())
+                            .toList();
+                    default -> throw new UnsupportedOperationException("SigningKeyRepository." + method.getName());
+                }));
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
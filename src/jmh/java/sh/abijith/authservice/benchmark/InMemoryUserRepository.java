@@ -0,0 +1,90 @@
+package sh.abijith.authservice.benchmark;
+
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserCredentials;
+import sh.abijith.authservice.repository.UserRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Map-backed stand-in for {@link UserRepository} covering the methods used on the login path,
+ * so benchmarks measure hashing and token work rather than MongoDB.
+ */
+final class InMemoryUserRepository implements InvocationHandler {
+    private final Map<String, User> usersById = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+
+    private InMemoryUserRepository() {
+    }
+
+    static UserRepository create() {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                new InMemoryUserRepository());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findByEmail" -> Optional.ofNullable(usersByEmail.get((String) args[0]));
+            case "findCredentialsByEmail" -> Optional.ofNullable(usersByEmail.get((String) args[0]))
+                    .map(UserCredentials::from);
+            case "findById" -> Optional.ofNullable(usersById.get((String) args[0]));
+            case "save", "insert" -> save((User) args[0]);
+            case "incrementFailedAttempts" -> {
+                User user = update((String) args[0], u -> {
+                    u.setFailedAttempts(u.getFailedAttempts() + 1);
+                    if (u.getFailedAttempts() >= (int) args[1]) {
+                        u.setLocked(true);
+                        u.setLockTime((Date) args[2]);
+                    }
+                });
+                yield user == null ? 0 : user.getFailedAttempts();
+            }
+            case "resetFailedAttempts", "unlock" -> update((String) args[0], user -> {
+                user.setFailedAttempts(0);
+                user.setLocked(false);
+                user.setLockTime(null);
+            }) != null;
+            case "lockByEmail" -> {
+                User user = usersByEmail.get((String) args[0]);
+                if (user == null || user.isLocked()) {
+                    yield false;
+                }
+                user.setLocked(true);
+                user.setLockTime((Date) args[1]);
+                yield true;
+            }
+            case "updatePassword" -> update((String) args[0], user -> user.setPassword((String) args[1])) != null;
+            case "toString" -> "InMemoryUserRepository";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private User update(String id, Consumer<User> change) {
+        return usersById.computeIfPresent(id, (key, user) -> {
+            change.accept(user);
+            return user;
+        });
+    }
+
+    private User save(User user) {
+        if (user.getId() == null) {
+            user.setId(UUID.randomUUID().toString());
+        }
+        usersById.put(user.getId(), user);
+        usersByEmail.put(user.getEmail(), user);
+        return user;
+    }
+}
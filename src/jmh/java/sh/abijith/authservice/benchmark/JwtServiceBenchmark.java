@@ -0,0 +1,79 @@
+package sh.abijith.authservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.abijith.authservice.dto.TokenValidationResult;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.util.JwtService;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Token issue and verify costs. {@code cacheEntries=1} cycles through more distinct tokens than
+ * the claims cache can hold, so every verification pays the full parse and signature check.
+ */
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+    private static final int TOKEN_POOL_SIZE = 1024;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1", "10000"})
+    public int cacheEntries;
+
+    private JwtService jwtService;
+    private User user;
+    private Date refreshExpiry;
+    private String[] tokens;
+    private List<String> batch;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(cacheEntries);
+        user = BenchmarkFixtures.user("bench@example.com", "unused");
+        refreshExpiry = new Date(System.currentTimeMillis() + 86400000);
+
+        tokens = new String[TOKEN_POOL_SIZE];
+        for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+            tokens[i] = jwtService.generateToken(BenchmarkFixtures.user("bench" + i + "@example.com", "unused"));
+        }
+        batch = Arrays.asList(tokens).subList(0, BATCH_SIZE);
+    }
+
+    private String nextToken() {
+        next = (next + 1) & (TOKEN_POOL_SIZE - 1);
+        return tokens[next];
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(user.getEmail(), "token-id", "family-id", refreshExpiry);
+    }
+
+    @Benchmark
+    public TokenValidationResult validateToken() {
+        return jwtService.validateToken(nextToken());
+    }
+
+    @Benchmark
+    public Set<Role> extractRoles() {
+        return jwtService.extractRoles(nextToken());
+    }
+
+    @Benchmark
+    public List<TokenValidationResult> validateTokens() {
+        return jwtService.validateTokens(batch);
+    }
+}
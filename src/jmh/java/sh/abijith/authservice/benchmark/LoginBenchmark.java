@@ -0,0 +1,81 @@
+package sh.abijith.authservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.LoginLimiterProperties;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.config.PasswordHashingProperties;
+import sh.abijith.authservice.dto.AuthResponse;
+import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.service.AuthService;
+import sh.abijith.authservice.service.LoginAttemptLimiter;
+import sh.abijith.authservice.service.PasswordHashingService;
+import sh.abijith.authservice.util.AuthMetrics;
+
+import java.time.Clock;
+
+/**
+ * End-to-end {@link AuthService#login} against an in-memory repository.
+ */
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final String CLIENT_IP = "127.0.0.1";
+
+    @Param({"4", "10"})
+    public int bcryptStrength;
+
+    private PasswordHashingService passwordHashingService;
+    private AuthService authService;
+    private LoginRequest request;
+
+    @Setup
+    public void setUp() {
+        var passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        var userRepository = InMemoryUserRepository.create();
+        userRepository.save(BenchmarkFixtures.user(EMAIL, passwordEncoder.encode(PASSWORD)));
+
+        var meterRegistry = new SimpleMeterRegistry();
+        passwordHashingService = new PasswordHashingService(
+                passwordEncoder, new PasswordHashingProperties(), meterRegistry);
+
+        var loginSecurityProps = new LoginSecurityProperties();
+        var loginAttemptLimiter = new LoginAttemptLimiter(
+                new LoginLimiterProperties(), loginSecurityProps, userRepository,
+                Clock.systemUTC(), meterRegistry);
+
+        var jwtService = BenchmarkFixtures.jwtService(10000);
+        authService = new AuthService(
+                userRepository,
+                passwordHashingService,
+                jwtService,
+                loginSecurityProps,
+                new UserMapper(),
+                loginAttemptLimiter,
+                BenchmarkFixtures.refreshTokenService(jwtService),
+                BenchmarkFixtures.tokenDenyList(),
+                new JwtProperties(),
+                Clock.systemUTC(),
+                new AuthMetrics(meterRegistry));
+        request = new LoginRequest(EMAIL, PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Benchmark
+    public AuthResponse login() {
+        return authService.login(request, CLIENT_IP);
+    }
+}
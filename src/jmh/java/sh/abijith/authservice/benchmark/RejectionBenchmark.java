@@ -0,0 +1,202 @@
+package sh.abijith.authservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import sh.abijith.authservice.config.JwtCacheProperties;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.LoginLimiterProperties;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.config.PasswordHashingProperties;
+import sh.abijith.authservice.dto.ErrorResponse;
+import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.dto.TokenValidationResult;
+import sh.abijith.authservice.exception.AuthException;
+import sh.abijith.authservice.exception.ErrorResponses;
+import sh.abijith.authservice.exception.InvalidTokenException;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.service.AuthService;
+import sh.abijith.authservice.service.LoginAttemptLimiter;
+import sh.abijith.authservice.service.PasswordHashingService;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.JwtService;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of answering a rejected request during a simulated credential-stuffing run: logins for
+ * unknown emails from a rotating pool of addresses, and tokens with a forged signature.
+ *
+ * <p>Each {@code *Thrown} benchmark reproduces the previous rejection path as the baseline: a
+ * stack-traced exception created {@code frameDepth} frames down, the depth of a request inside
+ * the servlet and security filter chain, and an {@link ErrorResponse} serialized by Jackson.
+ * Forged tokens are verified without the negative cache there, so the parser throws every time.
+ * The other benchmarks take the current path: stackless domain exceptions, a validation result
+ * instead of an exception for tokens, and {@link ErrorResponses}. Run with {@code -t} above 1
+ * to see the effect under contention.
+ */
+@State(Scope.Benchmark)
+public class RejectionBenchmark {
+    private static final int POOL_SIZE = 1024;
+    private static final String PATH = "/auth/login";
+
+    @Param({"20", "120"})
+    public int frameDepth;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private AuthService authService;
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private ErrorResponses errorResponses;
+    private ObjectMapper objectMapper;
+    private LoginRequest[] logins;
+    private String[] clientIps;
+    private String[] forgedTokens;
+
+    @Setup
+    public void setUp() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var userRepository = InMemoryUserRepository.create();
+        var loginSecurityProps = new LoginSecurityProperties();
+        var loginAttemptLimiter = new LoginAttemptLimiter(
+                new LoginLimiterProperties(), loginSecurityProps, userRepository,
+                Clock.systemUTC(), meterRegistry);
+
+        jwtService = BenchmarkFixtures.jwtService(10000);
+        authService = new AuthService(
+                userRepository,
+                new PasswordHashingService(new BCryptPasswordEncoder(4), new PasswordHashingProperties(), meterRegistry),
+                jwtService,
+                loginSecurityProps,
+                new UserMapper(),
+                loginAttemptLimiter,
+                BenchmarkFixtures.refreshTokenService(jwtService),
+                BenchmarkFixtures.tokenDenyList(),
+                new JwtProperties(),
+                Clock.systemUTC(),
+                new AuthMetrics(meterRegistry));
+        errorResponses = new ErrorResponses(Clock.systemUTC(), meterRegistry);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var noNegativeCache = new JwtCacheProperties();
+        noNegativeCache.setNegativeTtlSeconds(0);
+        uncachedJwtService = BenchmarkFixtures.jwtService(noNegativeCache, BenchmarkFixtures.signingKeyRing("HS256"));
+
+        logins = new LoginRequest[POOL_SIZE];
+        clientIps = new String[POOL_SIZE];
+        forgedTokens = new String[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            String email = "stuffed-" + i + "@example.com";
+            logins[i] = new LoginRequest(email, "hunter2");
+            clientIps[i] = "10.0." + (i / 256) + "." + (i % 256);
+            forgedTokens[i] = forge(jwtService.generateToken(BenchmarkFixtures.user(email, "unused")));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> unknownUser() {
+        int i = nextIndex();
+        try {
+            login(frameDepth, i);
+            throw new IllegalStateException("Login for an unknown user succeeded");
+        } catch (AuthException e) {
+            return errorResponses.build(e.getClass(), HttpStatus.UNAUTHORIZED, e.getMessage(), PATH);
+        }
+    }
+
+    @Benchmark
+    public byte[] unknownUserThrown() throws JsonProcessingException {
+        int i = nextIndex();
+        try {
+            loginStackTraced(frameDepth, i);
+            throw new IllegalStateException("Login for an unknown user succeeded");
+        } catch (IllegalArgumentException e) {
+            return serialize(HttpStatus.UNAUTHORIZED, e.getMessage());
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> forgedToken() {
+        TokenValidationResult result = validate(frameDepth, forgedTokens[nextIndex()]);
+        return errorResponses.build(InvalidTokenException.class, HttpStatus.UNAUTHORIZED, result.getError(), PATH);
+    }
+
+    @Benchmark
+    public byte[] forgedTokenThrown() throws JsonProcessingException {
+        try {
+            validateStackTraced(frameDepth, forgedTokens[nextIndex()]);
+            throw new IllegalStateException("A forged token was accepted");
+        } catch (IllegalArgumentException e) {
+            return serialize(HttpStatus.UNAUTHORIZED, e.getMessage());
+        }
+    }
+
+    private void login(int depth, int i) {
+        if (depth > 0) {
+            login(depth - 1, i);
+            return;
+        }
+        authService.login(logins[i], clientIps[i]);
+    }
+
+    private void loginStackTraced(int depth, int i) {
+        if (depth > 0) {
+            loginStackTraced(depth - 1, i);
+            return;
+        }
+        try {
+            authService.login(logins[i], clientIps[i]);
+        } catch (AuthException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private TokenValidationResult validate(int depth, String token) {
+        return depth > 0 ? validate(depth - 1, token) : jwtService.validateToken(token);
+    }
+
+    private void validateStackTraced(int depth, String token) {
+        if (depth > 0) {
+            validateStackTraced(depth - 1, token);
+            return;
+        }
+        TokenValidationResult result = uncachedJwtService.validateToken(token);
+        if (!result.isValid()) {
+            throw new IllegalArgumentException(result.getError());
+        }
+    }
+
+    private byte[] serialize(HttpStatus status, String message) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(PATH)
+                .build());
+    }
+
+    /**
+     * Keeps the header and claims of a genuine token and replaces its signature with that of another.
+     */
+    private String forge(String token) {
+        String other = jwtService.generateToken(BenchmarkFixtures.user("attacker@example.com", "unused"));
+        return token.substring(0, token.lastIndexOf('.') + 1) + other.substring(other.lastIndexOf('.') + 1);
+    }
+
+    private int nextIndex() {
+        return next.getAndIncrement() & (POOL_SIZE - 1);
+    }
+}
@@ -0,0 +1,48 @@
+package sh.abijith.authservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.util.RoleMask;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decoding the {@code roles} claim: the bitmask lookup against the comma-joined string parsing
+ * it replaced. The {@code gc} profiler shows the allocation per decode.
+ */
+@State(Scope.Benchmark)
+public class RoleEncodingBenchmark {
+    private Set<Role> roles;
+    private int mask;
+    private String joined;
+
+    @Setup
+    public void setUp() {
+        roles = EnumSet.of(Role.USER, Role.ADMIN);
+        mask = RoleMask.encode(roles);
+        joined = roles.stream().map(Role::name).collect(Collectors.joining(","));
+    }
+
+    @Benchmark
+    public int encodeMask() {
+        return RoleMask.encode(roles);
+    }
+
+    @Benchmark
+    public Set<Role> decodeMask() {
+        return RoleMask.decode(mask);
+    }
+
+    @Benchmark
+    public Set<Role> decodeCommaJoined() {
+        return Arrays.stream(joined.split(","))
+                .map(Role::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,51 @@
+package sh.abijith.authservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.util.JwtService;
+import sh.abijith.authservice.util.TokenClaims;
+
+/**
+ * Sign and verify throughput per {@code jwt.signing.algorithm}. The claims cache holds a single
+ * entry and the benchmark cycles through a larger token pool, so every verification pays the full
+ * signature check. This is the per-request cost a downstream service pays when verifying locally
+ * against the JWKS.
+ */
+@State(Scope.Benchmark)
+public class SigningAlgorithmBenchmark {
+    private static final int TOKEN_POOL_SIZE = 1024;
+
+    @Param({"HS256", "RS256", "ES256"})
+    public String algorithm;
+
+    private JwtService jwtService;
+    private User user;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(1, algorithm);
+        user = BenchmarkFixtures.user("bench@example.com", "unused");
+
+        tokens = new String[TOKEN_POOL_SIZE];
+        for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+            tokens[i] = jwtService.generateToken(BenchmarkFixtures.user("bench" + i + "@example.com", "unused"));
+        }
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public TokenClaims verify() {
+        next = (next + 1) & (TOKEN_POOL_SIZE - 1);
+        return jwtService.parseOnce(tokens[next]);
+    }
+}
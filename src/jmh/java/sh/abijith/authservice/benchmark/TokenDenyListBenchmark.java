@@ -0,0 +1,45 @@
+package sh.abijith.authservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.util.TokenClaims;
+import sh.abijith.authservice.util.TokenDenyList;
+
+import java.util.Date;
+import java.util.EnumSet;
+
+/**
+ * Cost of the revocation check added to every validation, for a token that is not revoked,
+ * with the deny list empty and holding {@code revocations} tokens and subjects. The {@code gc}
+ * profiler should report no allocation.
+ */
+@State(Scope.Benchmark)
+public class TokenDenyListBenchmark {
+
+    @Param({"0", "100000"})
+    public int revocations;
+
+    private TokenDenyList tokenDenyList;
+    private TokenClaims claims;
+
+    @Setup
+    public void setUp() {
+        tokenDenyList = BenchmarkFixtures.tokenDenyList();
+        Date expiresAt = new Date(System.currentTimeMillis() + 3_600_000);
+        for (int i = 0; i < revocations; i++) {
+            tokenDenyList.revokeToken("revoked-" + i, "user" + i + "@example.com", expiresAt);
+            tokenDenyList.revokeSubject("user" + i + "@example.com", new Date(), 3_600_000);
+        }
+        claims = new TokenClaims("token-id", "bench@example.com", EnumSet.of(Role.USER),
+                new Date(), expiresAt);
+    }
+
+    @Benchmark
+    public boolean isRevoked() {
+        return tokenDenyList.isRevoked(claims);
+    }
+}
@@ -0,0 +1,64 @@
+package sh.abijith.authservice.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserCredentials;
+import sh.abijith.authservice.repository.UserRepository;
+import sh.abijith.authservice.repository.UserRepositoryCustomImpl;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Per-lookup latency and allocation of the full {@link User} read against the projection
+ * queries used on the login path. Needs a MongoDB reachable at {@code -Dbenchmark.mongo.uri}
+ * (default {@code mongodb://localhost:27017}); the benchmark uses its own database and drops it afterwards.
+ */
+@State(Scope.Benchmark)
+public class UserRepositoryProjectionBenchmark {
+    private static final String DATABASE = "authdb-benchmark";
+    private static final String EMAIL = "projection@example.com";
+
+    private MongoClient mongoClient;
+    private UserRepository userRepository;
+
+    @Setup
+    public void setUp() {
+        mongoClient = MongoClients.create(System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017"));
+        var mongoTemplate = new MongoTemplate(mongoClient, DATABASE);
+        mongoTemplate.dropCollection(User.class);
+
+        userRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(
+                UserRepository.class, RepositoryFragments.just(new UserRepositoryCustomImpl(mongoTemplate)));
+
+        var user = BenchmarkFixtures.user(EMAIL, "unused");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        userRepository.save(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.getDatabase(DATABASE).drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return userRepository.findByEmail(EMAIL);
+    }
+
+    @Benchmark
+    public Optional<UserCredentials> findCredentialsByEmail() {
+        return userRepository.findCredentialsByEmail(EMAIL);
+    }
+}
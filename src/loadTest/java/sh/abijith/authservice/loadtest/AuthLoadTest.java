@@ -0,0 +1,200 @@
+package sh.abijith.authservice.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for a running auth-service instance. Each of
+ * {@code --concurrency} virtual-thread workers sends one request at a time for
+ * {@code --duration} seconds after a {@code --warmup} period, then throughput and latency
+ * percentiles are printed.
+ *
+ * <p>Run it once against an instance started with {@code AUTH_VIRTUAL_THREADS=false} and once
+ * with {@code AUTH_VIRTUAL_THREADS=true} to compare the two request execution models:
+ * <pre>
+ * ./gradlew loadTest --args="--scenario=register --concurrency=2000 --duration=30"
+ * </pre>
+ *
+ * <p>{@code --base-url} takes a comma-separated list to compare instances back to back with the
+ * same load, for example a servlet instance and one started with {@code AUTH_WEB_STACK=reactive}:
+ * <pre>
+ * ./gradlew loadTest --args="--scenario=login --concurrency=5000 --base-url=http://localhost:8081,http://localhost:8083"
+ * </pre>
+ */
+public final class AuthLoadTest {
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String PASSWORD = "load-test-password";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+    private final String scenario;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private final AtomicLong registrations = new AtomicLong();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private String email;
+    private String accessToken;
+
+    private AuthLoadTest(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8081");
+        this.scenario = options.getOrDefault("scenario", "validate");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "500"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        for (String baseUrl : options.getOrDefault("base-url", "http://localhost:8081").split(",")) {
+            options.put("base-url", baseUrl.trim());
+            new AuthLoadTest(options).run();
+        }
+    }
+
+    private void run() throws Exception {
+        prepare();
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> work(measureFrom, stopAt)));
+            }
+        }
+
+        List<long[]> samples = new ArrayList<>(concurrency);
+        for (Future<long[]> worker : workers) {
+            samples.add(worker.get());
+        }
+        report(samples);
+    }
+
+    /**
+     * Creates the user and token that the login and validate scenarios reuse.
+     */
+    private void prepare() throws Exception {
+        if (scenario.equals("register")) {
+            return;
+        }
+        email = "load-test-" + UUID.randomUUID() + "@example.com";
+        send(registerRequest(email));
+
+        HttpResponse<String> login = send(loginRequest());
+        Matcher matcher = ACCESS_TOKEN.matcher(login.body());
+        if (login.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Setup login failed with " + login.statusCode() + ": " + login.body());
+        }
+        accessToken = matcher.group(1);
+    }
+
+    private long[] work(long measureFrom, long stopAt) {
+        long[] latencies = new long[1024];
+        int count = 0;
+
+        long start;
+        while ((start = System.nanoTime()) < stopAt) {
+            boolean ok;
+            try {
+                int status = send(nextRequest()).statusCode();
+                ok = status >= 200 && status < 300;
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (start < measureFrom) {
+                continue;
+            }
+
+            (ok ? succeeded : failed).increment();
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private HttpRequest nextRequest() {
+        return switch (scenario) {
+            case "validate" -> HttpRequest.newBuilder(URI.create(baseUrl + "/auth/validate-token?token="
+                            + URLEncoder.encode(accessToken, StandardCharsets.UTF_8)))
+                    .GET()
+                    .build();
+            case "login" -> loginRequest();
+            case "register" -> registerRequest("load-test-" + registrations.incrementAndGet()
+                    + "-" + UUID.randomUUID() + "@example.com");
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private HttpRequest loginRequest() {
+        return post("/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}");
+    }
+
+    private HttpRequest registerRequest(String userEmail) {
+        return post("/auth/register", "{\"email\":\"" + userEmail + "\",\"password\":\"" + PASSWORD
+                + "\",\"firstName\":\"Load\",\"lastName\":\"Test\",\"roles\":[\"USER\"]}");
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(List<long[]> samples) {
+        long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long total = succeeded.sum() + failed.sum();
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+
+        System.out.printf("base-url=%s scenario=%s concurrency=%d duration=%ds%n",
+                baseUrl, scenario, concurrency, duration.toSeconds());
+        System.out.printf("requests=%d ok=%d failed=%d throughput=%.1f req/s%n",
+                total, succeeded.sum(), failed.sum(), total / seconds);
+        if (all.length > 0) {
+            System.out.printf("latency ms p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
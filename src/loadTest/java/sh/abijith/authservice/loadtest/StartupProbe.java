@@ -0,0 +1,153 @@
+package sh.abijith.authservice.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold start the way an autoscaler experiences it. The service is launched
+ * {@code --runs} times with {@code --command}, and for each launch the probe reports the time
+ * until the first HTTP response and until the first successful login. The first launch registers
+ * the probe user, so its login time includes one registration.
+ *
+ * <pre>
+ * ./gradlew startupTime --args="--runs=5 --command='java -jar build/libs/auth-service-0.0.1-SNAPSHOT.jar'"
+ * ./gradlew startupTime --args="--runs=5 --command='java -XX:SharedArchiveFile=build/cds/application.jsa -jar build/cds/auth-service-0.0.1-SNAPSHOT.jar'"
+ * ./gradlew startupTime --args="--runs=5 --command=build/native/nativeCompile/auth-service"
+ * </pre>
+ *
+ * The service needs its MongoDB; the output of each launch is written to a temporary log file.
+ */
+public final class StartupProbe {
+    private static final String PASSWORD = "startup-probe-password";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private final List<String> command;
+    private final String baseUrl;
+    private final int runs;
+    private final Duration timeout;
+    private final String email = "startup-probe-" + UUID.randomUUID() + "@example.com";
+
+    private boolean registered;
+
+    private StartupProbe(Map<String, String> options) {
+        String commandLine = options.get("command");
+        if (commandLine == null) {
+            throw new IllegalArgumentException("--command is required");
+        }
+        this.command = List.of(commandLine.replace("'", "").trim().split("\\s+"));
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8081");
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        new StartupProbe(options).run();
+    }
+
+    private void run() throws Exception {
+        long[] firstResponse = new long[runs];
+        long[] firstLogin = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            boolean registers = !registered;
+            long[] sample = launch();
+            firstResponse[i] = sample[0];
+            firstLogin[i] = sample[1];
+            System.out.printf("run=%d first-response=%d ms first-login=%d ms%s%n",
+                    i + 1, sample[0], sample[1], registers ? " (includes registration)" : "");
+        }
+
+        Arrays.sort(firstResponse);
+        Arrays.sort(firstLogin);
+        System.out.printf("command=%s runs=%d%n", String.join(" ", command), runs);
+        System.out.printf("median first-response=%d ms first-login=%d ms%n",
+                firstResponse[runs / 2], firstLogin[runs / 2]);
+    }
+
+    /**
+     * Starts the service and polls the login endpoint until it succeeds, then stops the service.
+     *
+     * @return the milliseconds until the first HTTP response and until the first successful login
+     */
+    private long[] launch() throws Exception {
+        Path log = Files.createTempFile("startup-probe-", ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            long firstResponse = -1;
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with " + process.exitValue() + "; see " + log);
+                }
+
+                HttpResponse<String> response;
+                try {
+                    response = send(post("/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"));
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                    continue;
+                }
+                if (firstResponse < 0) {
+                    firstResponse = millisSince(start);
+                }
+
+                if (response.statusCode() == 200) {
+                    return new long[] {firstResponse, millisSince(start)};
+                }
+                if (response.statusCode() == 404 && !registered) {
+                    send(post("/auth/register", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD
+                            + "\",\"firstName\":\"Startup\",\"lastName\":\"Probe\",\"roles\":[\"USER\"]}"));
+                    registered = true;
+                } else {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException("No successful login within " + timeout + "; see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,47 @@
+package sh.abijith.authservice.client;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lets the synchronous {@link UserClient} use an asynchronous Feign client. The calling thread
+ * waits for the response; the exchange itself is bounded by the timeouts in
+ * {@link Request.Options}. An interrupted wait cancels the exchange. Failures are rethrown as the
+ * {@link IOException} or runtime exception that ended the exchange, as a blocking client would.
+ */
+class BlockingAsyncClient implements Client {
+    private final AsyncClient<Object> delegate;
+
+    BlockingAsyncClient(AsyncClient<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        CompletableFuture<Response> response = delegate.execute(request, options, Optional.empty());
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
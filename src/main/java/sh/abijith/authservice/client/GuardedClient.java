@@ -0,0 +1,68 @@
+package sh.abijith.authservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every call of a Feign client through a circuit breaker and a bulkhead. An open breaker
+ * throws {@link CallNotPermittedException} and a full bulkhead throws {@link BulkheadFullException},
+ * both before any connection is taken from the pool. Connection errors, timeouts and 5xx
+ * responses count as failures; calls slower than the breaker's slow-call threshold count as slow.
+ */
+class GuardedClient implements Client {
+    private final Client delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    GuardedClient(Client delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        circuitBreaker.acquirePermission();
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Response response = delegate.execute(request, options);
+            long elapsed = System.nanoTime() - start;
+            if (response.status() >= 500) {
+                circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, new ServerErrorResponse(response.status()));
+            } else {
+                circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    /**
+     * Records a 5xx answer with the breaker. The response itself is still returned to Feign,
+     * which turns it into the usual {@code FeignException}.
+     */
+    private static final class ServerErrorResponse extends RuntimeException {
+        ServerErrorResponse(int status) {
+            super("Server answered " + status, null, false, false);
+        }
+    }
+}
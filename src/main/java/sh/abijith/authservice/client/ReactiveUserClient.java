@@ -0,0 +1,69 @@
+package sh.abijith.authservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import sh.abijith.authservice.config.UserServiceClientProperties;
+import sh.abijith.authservice.dto.UserProfileRequest;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking replacement for {@link UserClient} on the reactive stack. Calls are bounded by the
+ * connect and read timeouts of {@code services.user.client} and guarded by the same circuit
+ * breaker and bulkhead as {@link UserClient}, so both stacks share one view of user-service's
+ * health. An open breaker fails with {@code CallNotPermittedException} and a full bulkhead with
+ * {@code BulkheadFullException}, both before a request is sent.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient {
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ReactiveUserClient(WebClient.Builder webClientBuilder,
+                              @Value("${services.user.base-url}") String baseUrl,
+                              UserServiceClientProperties props,
+                              CircuitBreaker userServiceCircuitBreaker,
+                              Bulkhead userServiceBulkhead) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(props.getConnectTimeoutMillis()))
+                .responseTimeout(Duration.ofMillis(props.getReadTimeoutMillis()));
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.circuitBreaker = userServiceCircuitBreaker;
+        this.bulkhead = userServiceBulkhead;
+    }
+
+    /**
+     * Creates the user profile in user-service. A 409 means the profile already exists and
+     * completes normally, so redelivery is idempotent.
+     *
+     * @param request the profile to create
+     * @return completes when user-service has accepted the profile
+     */
+    public Mono<Void> createUserProfile(UserProfileRequest request) {
+        return webClient.post()
+                .uri("/users")
+                .bodyValue(request)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorResume(WebClientResponseException.Conflict.class, e -> Mono.empty())
+                .then()
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+}
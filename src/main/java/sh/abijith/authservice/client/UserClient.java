@@ -5,7 +5,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import sh.abijith.authservice.dto.UserProfileRequest;
 
-@FeignClient(name = "user-service", url = "${services.user.base-url}")
+/**
+ * Blocking client for user-service. Pooling, timeouts, the circuit breaker and the bulkhead are set
+ * up in {@link UserClientConfiguration}.
+ */
+@FeignClient(name = "user-service", url = "${services.user.base-url}", configuration = UserClientConfiguration.class)
 public interface UserClient {
 
     @PostMapping("/users")
@@ -0,0 +1,90 @@
+package sh.abijith.authservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.hc5.AsyncApacheHttp5Client;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import sh.abijith.authservice.config.UserServiceClientProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign configuration of {@link UserClient}, applied in the client's own context only. Calls go
+ * through a pooled asynchronous Apache HttpClient 5 with keep-alive, bounded by the connect and
+ * read timeouts, and are guarded by the circuit breaker and bulkhead of
+ * {@link UserServiceResilienceConfiguration}, all sized from {@code services.user.client}.
+ *
+ * <p>The client negotiates HTTP/2 through ALPN when user-service is reached over TLS, and then
+ * multiplexes calls over one connection per route; plain-text {@code http} URLs use pooled
+ * HTTP/1.1 connections. {@link BlockingAsyncClient} keeps {@link UserClient} synchronous.
+ *
+ * <p>The pool is published as the {@code httpcomponents.httpclient.pool.*} meters, and the breaker
+ * and bulkhead as {@code resilience4j.circuitbreaker.*} and {@code resilience4j.bulkhead.*}, all
+ * tagged with {@value #NAME}.
+ */
+public class UserClientConfiguration {
+    static final String NAME = "user-service";
+
+    @Bean
+    PoolingAsyncClientConnectionManager userServiceConnectionManager(UserServiceClientProperties props,
+                                                                     MeterRegistry meterRegistry) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(props.getMaxConnections())
+                .setMaxConnPerRoute(props.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(props.getConnectTimeoutMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(props.getReadTimeoutMillis()))
+                        .setTimeToLive(TimeValue.ofSeconds(props.getConnectionTtlSeconds()))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    CloseableHttpAsyncClient userServiceHttpClient(PoolingAsyncClientConnectionManager connectionManager,
+                                                   UserServiceClientProperties props) {
+        CloseableHttpAsyncClient httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(props.getIdleEvictSeconds()))
+                .disableAutomaticRetries()
+                .build();
+        httpClient.start();
+        return httpClient;
+    }
+
+    @Bean
+    Client feignClient(CloseableHttpAsyncClient userServiceHttpClient,
+                       CircuitBreaker userServiceCircuitBreaker,
+                       Bulkhead userServiceBulkhead) {
+        return new GuardedClient(
+                new BlockingAsyncClient(new AsyncApacheHttp5Client<>(userServiceHttpClient)),
+                userServiceCircuitBreaker,
+                userServiceBulkhead);
+    }
+
+    @Bean
+    Request.Options userServiceRequestOptions(UserServiceClientProperties props) {
+        return new Request.Options(
+                props.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                props.getReadTimeoutMillis(), TimeUnit.MILLISECONDS,
+                false);
+    }
+}
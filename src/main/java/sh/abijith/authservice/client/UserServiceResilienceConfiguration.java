@@ -0,0 +1,60 @@
+package sh.abijith.authservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import sh.abijith.authservice.config.UserServiceClientProperties;
+
+import java.time.Duration;
+
+/**
+ * The circuit breaker and bulkhead guarding calls to user-service, sized from
+ * {@code services.user.client}. They live in the application context rather than in the Feign
+ * client's own context, so that callers such as {@code ProfileOutboxDispatcher} can see the
+ * breaker's state before doing any work.
+ *
+ * <p>An open breaker moves to half-open by itself once {@code open-state-millis} has passed, so
+ * a caller that skips its work while the breaker is open does not keep it open forever. A 4xx answer
+ * says the request was wrong, not that user-service is unhealthy, so it is not recorded as a failure.
+ */
+@Configuration
+public class UserServiceResilienceConfiguration {
+
+    @Bean
+    public CircuitBreaker userServiceCircuitBreaker(UserServiceClientProperties props, MeterRegistry meterRegistry) {
+        var circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(props.getSlidingWindowSize())
+                .minimumNumberOfCalls(props.getMinimumCalls())
+                .failureRateThreshold(props.getFailureRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(props.getSlowCallMillis()))
+                .slowCallRateThreshold(props.getSlowCallRateThreshold())
+                .waitDurationInOpenState(Duration.ofMillis(props.getOpenStateMillis()))
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .permittedNumberOfCallsInHalfOpenState(props.getHalfOpenCalls())
+                .recordException(e -> !(e instanceof WebClientResponseException response
+                        && response.getStatusCode().is4xxClientError()))
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        return circuitBreakers.circuitBreaker(UserClientConfiguration.NAME);
+    }
+
+    @Bean
+    public Bulkhead userServiceBulkhead(UserServiceClientProperties props, MeterRegistry meterRegistry) {
+        var bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(props.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(props.getMaxWaitMillis()))
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        return bulkheads.bulkhead(UserClientConfiguration.NAME);
+    }
+}
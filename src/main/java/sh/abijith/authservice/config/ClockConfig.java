@@ -0,0 +1,23 @@
+package sh.abijith.authservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    /**
+     * The time source for token issue and expiry and for account lock windows.
+     * Tests replace it to move time without sleeping.
+     *
+     * @return the system clock in UTC
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
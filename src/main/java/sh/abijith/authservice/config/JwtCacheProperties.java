@@ -0,0 +1,15 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "jwt.cache")
+@Data
+@Component
+public class JwtCacheProperties {
+    private int maxEntries = 10000;
+    private int maxTtlSeconds = 300;
+    private int negativeTtlSeconds = 5;
+    private int negativeMaxEntries = 1000;
+}
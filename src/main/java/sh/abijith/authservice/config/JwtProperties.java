@@ -0,0 +1,21 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Token lifetimes and the clock skew tolerated when checking {@code exp} and {@code nbf}.
+ * Shorter access-token lifetimes shrink the window in which a revoked token has to be kept
+ * in the deny list and the time claims stay cached.
+ */
+@ConfigurationProperties(prefix = "jwt")
+@Data
+@Component
+public class JwtProperties {
+    private Duration accessTokenTtl = Duration.ofDays(1);
+    private Duration refreshTokenTtl = Duration.ofDays(30);
+    private Duration clockSkew = Duration.ZERO;
+}
@@ -0,0 +1,34 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Token signing settings. {@code HS256} signs with {@code jwt.secret} as before. {@code RS256}
+ * and {@code ES256} sign with a rotating key ring stored in MongoDB and published as a JWKS.
+ * A new key is published {@code publishLeadSeconds} before it starts signing, so that consumers
+ * that cache the JWKS already have it. Retired keys remain available for verification for
+ * {@code keyRetentionHours}, which must cover the longest token lifetime.
+ *
+ * <p>Under {@code RS256} or {@code ES256}, tokens without a {@code kid} (HS256 tokens signed with
+ * {@code jwt.secret} before the switch) are accepted only until {@code acceptKidlessUntil}. Set it
+ * to the switch time plus the longest token lifetime; leave it unset to reject them outright.
+ *
+ * <p>Private keys are encrypted in MongoDB with a key derived from {@code keyEncryptionKey}, or
+ * from {@code jwt.secret} when it is blank. All instances must use the same value.
+ */
+@ConfigurationProperties(prefix = "jwt.signing")
+@Data
+@Component
+public class JwtSigningProperties {
+    private String algorithm = "HS256";
+    private int rotationIntervalHours = 24;
+    private int keyRetentionHours = 744;
+    private int publishLeadSeconds = 600;
+    private int jwksMaxAgeSeconds = 300;
+    private Instant acceptKidlessUntil;
+    private String keyEncryptionKey;
+}
@@ -0,0 +1,18 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "auth.login.limiter")
+@Data
+@Component
+public class LoginLimiterProperties {
+    private boolean enabled = true;
+    private int shards = 16;
+    private int windowSeconds = 300;
+    private int maxAttemptsPerIp = 50;
+    private int maxKeysPerShard = 4096;
+    private long flushIntervalMillis = 5000;
+    private long sweepIntervalMillis = 60000;
+}
@@ -10,4 +10,5 @@ import org.springframework.stereotype.Component;
 public class LoginSecurityProperties {
     private int maxFailedAttempts = 5;
     private int lockDurationMinutes = 15;
+    private long unlockSweepIntervalMillis = 60000;
 }
@@ -0,0 +1,97 @@
+package sh.abijith.authservice.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import sh.abijith.authservice.client.UserClient;
+import sh.abijith.authservice.dto.*;
+import sh.abijith.authservice.model.*;
+
+import java.util.List;
+
+/**
+ * Reflection, proxy and resource hints for the GraalVM native image built with {@code -Pnative}.
+ * Spring AOT derives most hints from the bean definitions; these cover what it cannot see:
+ * <ul>
+ *   <li>the Jackson-bound DTOs, which are also built by hand and read back from MongoDB;</li>
+ *   <li>the MongoDB documents and projections, which Spring Data maps through reflection;</li>
+ *   <li>the Feign {@link UserClient}, which Feign implements as a JDK proxy;</li>
+ *   <li>jjwt, whose API module instantiates its implementation and Jackson serializer by class name.</li>
+ * </ul>
+ * Hints only take effect during native compilation; the JVM build ignores them.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageHints.Registrar.class)
+public class NativeImageHints {
+
+    static final List<Class<?>> DTOS = List.of(
+            AuthResponse.class,
+            BatchTokenValidationRequest.class,
+            BatchTokenValidationResponse.class,
+            ErrorResponse.class,
+            LoginRequest.class,
+            LogoutRequest.class,
+            RefreshTokenRequest.class,
+            RegisterRequest.class,
+            TokenValidationResult.class,
+            UserImportError.class,
+            UserImportRecord.class,
+            UserImportResponse.class,
+            UserProfileRequest.class);
+
+    static final List<Class<?>> DOCUMENTS = List.of(
+            User.class,
+            UserCredentials.class,
+            UserSummary.class,
+            ProfileOutboxEntry.class,
+            RefreshToken.class,
+            RevokedRefreshFamily.class,
+            SigningKey.class,
+            TokenRevocation.class);
+
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.impl.crypto.MacProvider",
+            "io.jsonwebtoken.impl.crypto.RsaProvider",
+            "io.jsonwebtoken.impl.crypto.EllipticCurveProvider",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(
+                    hints.reflection(), DTOS.toArray(Class<?>[]::new));
+
+            for (Class<?> document : DOCUMENTS) {
+                hints.reflection().registerType(document,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            hints.reflection().registerType(Role.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(OutboxStatus.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            hints.proxies().registerJdkProxy(UserClient.class);
+            hints.reflection().registerType(UserClient.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        }
+    }
+}
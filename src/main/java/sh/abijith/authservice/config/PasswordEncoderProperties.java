@@ -0,0 +1,32 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Selects the algorithm and cost used for new password hashes. Stored hashes that use a
+ * different algorithm, or a weaker bcrypt/argon2 cost, are rehashed on the next successful
+ * login. PBKDF2 hashes do not record their iteration count, so changing
+ * {@code pbkdf2Iterations} only affects hashes written afterwards.
+ */
+@ConfigurationProperties(prefix = "auth.password")
+@Data
+@Component
+public class PasswordEncoderProperties {
+    private String algorithm = "bcrypt";
+
+    private int bcryptStrength = 10;
+
+    private int argon2SaltLength = 16;
+    private int argon2HashLength = 32;
+    private int argon2Parallelism = 1;
+    private int argon2MemoryKib = 16384;
+    private int argon2Iterations = 2;
+
+    private int pbkdf2SaltLength = 16;
+    private int pbkdf2Iterations = 310000;
+
+    private boolean calibrateOnStartup = false;
+    private int calibrationTargetMillis = 100;
+}
@@ -0,0 +1,94 @@
+package sh.abijith.authservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Measures hash latency of each supported algorithm on this host at startup and logs the cost
+ * settings that come closest to {@code auth.password.calibration-target-millis} without exceeding it.
+ * Enabled with {@code auth.password.calibrate-on-startup=true}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "auth.password", name = "calibrate-on-startup", havingValue = "true")
+public class PasswordHashCalibration implements ApplicationRunner {
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 5;
+
+    private final PasswordEncoderProperties passwordProps;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int target = passwordProps.getCalibrationTargetMillis();
+        log.info("Calibrating password hashing against a target of {} ms", target);
+
+        int recommendedStrength = 4;
+        for (int strength = 8; strength <= 14; strength++) {
+            double millis = measure(new BCryptPasswordEncoder(strength));
+            log.info("bcrypt strength={} takes {} ms", strength, format(millis));
+            if (millis <= target) {
+                recommendedStrength = strength;
+            } else {
+                break;
+            }
+        }
+        log.info("Recommended auth.password.bcrypt-strength={}", recommendedStrength);
+
+        int argon2Iterations = passwordProps.getArgon2Iterations();
+        double argon2Millis = measure(new Argon2PasswordEncoder(
+                passwordProps.getArgon2SaltLength(),
+                passwordProps.getArgon2HashLength(),
+                passwordProps.getArgon2Parallelism(),
+                passwordProps.getArgon2MemoryKib(),
+                argon2Iterations));
+        log.info("argon2 memory={} KiB iterations={} takes {} ms",
+                passwordProps.getArgon2MemoryKib(), argon2Iterations, format(argon2Millis));
+        log.info("Recommended auth.password.argon2-iterations={}", scale(argon2Iterations, argon2Millis, target));
+
+        int pbkdf2Iterations = passwordProps.getPbkdf2Iterations();
+        double pbkdf2Millis = measure(new Pbkdf2PasswordEncoder(
+                "",
+                passwordProps.getPbkdf2SaltLength(),
+                pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        log.info("pbkdf2 iterations={} takes {} ms", pbkdf2Iterations, format(pbkdf2Millis));
+        log.info("Recommended auth.password.pbkdf2-iterations={}", scale(pbkdf2Iterations, pbkdf2Millis, target));
+    }
+
+    /**
+     * Returns the median latency of {@code encode} in milliseconds, after one warm-up call.
+     */
+    private static double measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2] / 1_000_000.0;
+    }
+
+    /**
+     * Iteration-based algorithms scale linearly with their iteration count.
+     */
+    private static int scale(int iterations, double measuredMillis, int targetMillis) {
+        return Math.max(1, (int) (iterations * targetMillis / measuredMillis));
+    }
+
+    private static String format(double millis) {
+        return String.format("%.1f", millis);
+    }
+}
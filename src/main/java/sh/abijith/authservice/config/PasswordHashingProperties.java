@@ -0,0 +1,14 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "auth.hashing")
+@Data
+@Component
+public class PasswordHashingProperties {
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private int retryAfterSeconds = 1;
+}
@@ -0,0 +1,17 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "services.user.outbox")
+@Data
+@Component
+public class ProfileOutboxProperties {
+    private int batchSize = 50;
+    private long pollIntervalMillis = 1000;
+    private int leaseSeconds = 30;
+    private long initialBackoffMillis = 1000;
+    private long maxBackoffMillis = 300000;
+    private int maxAttempts = 20;
+}
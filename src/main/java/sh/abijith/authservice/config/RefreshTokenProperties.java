@@ -0,0 +1,13 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "auth.refresh")
+@Data
+@Component
+public class RefreshTokenProperties {
+    private long revocationSyncMillis = 5000;
+    private int syncOverlapSeconds = 60;
+}
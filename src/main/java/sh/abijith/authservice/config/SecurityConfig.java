@@ -1,61 +1,162 @@
 package sh.abijith.authservice.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
 
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
 @Configuration
-@EnableWebSecurity
 public class SecurityConfig {
 
     @Value("${AUTH_ACTUATOR_USERNAME:admin}")
     private String actuatorUsername;
 
-    @Value("${AUTH_ACTUATOR_PASSWORD:admin}")
+    @Value("${AUTH_ACTUATOR_PASSWORD:}")
     private String actuatorPassword;
 
+    /**
+     * Delegating encoder that writes new hashes with {@code auth.password.algorithm} and can still
+     * verify hashes written by any of the other supported algorithms. Hashes stored before the
+     * {@code {id}} prefix was introduced are plain bcrypt and are matched as such.
+     *
+     * @param passwordProps the configured algorithm and cost parameters
+     * @return the password encoder used for all credential hashing
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderProperties passwordProps) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(passwordProps.getBcryptStrength()));
+        encoders.put("argon2", new Argon2PasswordEncoder(
+                passwordProps.getArgon2SaltLength(),
+                passwordProps.getArgon2HashLength(),
+                passwordProps.getArgon2Parallelism(),
+                passwordProps.getArgon2MemoryKib(),
+                passwordProps.getArgon2Iterations()));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder(
+                "",
+                passwordProps.getPbkdf2SaltLength(),
+                passwordProps.getPbkdf2Iterations(),
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        var passwordEncoder = new DelegatingPasswordEncoder(passwordProps.getAlgorithm(), encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        return passwordEncoder;
     }
 
-    @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        http
-                .csrf(AbstractHttpConfigurer::disable)
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
-                        .anyRequest().authenticated()
-                )
-                .httpBasic(Customizer.withDefaults())
-                .sessionManagement(sess -> sess
-                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-                );
-
-        return http.build();
+    /**
+     * Security for the servlet stack, the default.
+     */
+    @Configuration
+    @EnableWebSecurity
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletSecurityConfig {
+
+        @Bean
+        public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+            http
+                    .csrf(AbstractHttpConfigurer::disable)
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers("/auth/**").permitAll()
+                            .requestMatchers("/.well-known/jwks.json").permitAll()
+                            .requestMatchers("/actuator/**").permitAll()
+                            .requestMatchers("/admin/**").hasRole("ADMIN")
+                            .anyRequest().authenticated()
+                    )
+                    .httpBasic(Customizer.withDefaults())
+                    .sessionManagement(sess -> sess
+                            .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                    );
+
+            return http.build();
+        }
+
+        @Bean
+        public InMemoryUserDetailsManager userDetailsService(SecurityConfig securityConfig, PasswordEncoder passwordEncoder) {
+            return new InMemoryUserDetailsManager(securityConfig.actuatorUser(passwordEncoder));
+        }
     }
 
-    @Bean
-    public InMemoryUserDetailsManager userDetailsService(){
-        UserDetails admin = User.builder()
+    /**
+     * The same rules for the reactive stack, selected with {@code AUTH_WEB_STACK=reactive}.
+     */
+    @Configuration
+    @EnableWebFluxSecurity
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class ReactiveSecurityConfig {
+
+        @Bean
+        public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+            return http
+                    .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                    .authorizeExchange(exchange -> exchange
+                            .pathMatchers("/auth/**").permitAll()
+                            .pathMatchers("/.well-known/jwks.json").permitAll()
+                            .pathMatchers("/actuator/**").permitAll()
+                            .pathMatchers("/admin/**").hasRole("ADMIN")
+                            .anyExchange().authenticated()
+                    )
+                    .httpBasic(Customizer.withDefaults())
+                    .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                    .build();
+        }
+
+        @Bean
+        public MapReactiveUserDetailsService userDetailsService(SecurityConfig securityConfig, PasswordEncoder passwordEncoder) {
+            return new MapReactiveUserDetailsService(securityConfig.actuatorUser(passwordEncoder));
+        }
+    }
+
+    /**
+     * The admin account for HTTP basic authentication. Its password is encoded with the
+     * application's encoder, which the authentication provider uses to match it. The account can
+     * import ADMIN users and export every user, so there is no well-known default: without
+     * {@code AUTH_ACTUATOR_PASSWORD}, a random password is generated and logged once at startup.
+     */
+    UserDetails actuatorUser(PasswordEncoder passwordEncoder) {
+        String password = actuatorPassword;
+        if (password == null || password.isBlank()) {
+            password = generatePassword();
+            log.warn("AUTH_ACTUATOR_PASSWORD is not set; using generated password for admin user '{}': {}",
+                    actuatorUsername, password);
+        }
+        return User.builder()
+                .passwordEncoder(passwordEncoder::encode)
                 .username(actuatorUsername)
-                .password(actuatorPassword)
+                .password(password)
                 .roles("ADMIN")
                 .build();
+    }
 
-        return new InMemoryUserDetailsManager(admin);
+    private static String generatePassword() {
+        byte[] bytes = new byte[18];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
 }
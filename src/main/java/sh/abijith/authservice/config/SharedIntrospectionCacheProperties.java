@@ -0,0 +1,17 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "jwt.shared-cache")
+@Data
+@Component
+public class SharedIntrospectionCacheProperties {
+    private String backend = "none";
+    private int maxEntries = 100000;
+    private String redisUri = "redis://localhost:6379";
+    private long timeoutMillis = 50;
+    private String keyPrefix = "auth:introspect:";
+    private String hmacKey = "";
+}
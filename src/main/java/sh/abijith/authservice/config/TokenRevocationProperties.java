@@ -0,0 +1,13 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "auth.revocation")
+@Data
+@Component
+public class TokenRevocationProperties {
+    private long syncMillis = 2000;
+    private int syncOverlapSeconds = 60;
+}
@@ -0,0 +1,14 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "jwt.validation")
+@Data
+@Component
+public class TokenValidationProperties {
+    private int maxBatchSize = 500;
+    private int parallelThreshold = 16;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
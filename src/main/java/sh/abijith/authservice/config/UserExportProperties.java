@@ -0,0 +1,12 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "auth.export")
+@Data
+@Component
+public class UserExportProperties {
+    private int cursorBatchSize = 1000;
+}
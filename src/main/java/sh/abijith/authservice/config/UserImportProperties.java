@@ -0,0 +1,14 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "auth.import")
+@Data
+@Component
+public class UserImportProperties {
+    private int batchSize = 500;
+    private int hashingParallelism = Runtime.getRuntime().availableProcessors();
+    private int maxReportedErrors = 1000;
+}
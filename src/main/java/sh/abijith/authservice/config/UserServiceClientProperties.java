@@ -0,0 +1,25 @@
+package sh.abijith.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "services.user.client")
+@Data
+@Component
+public class UserServiceClientProperties {
+    private long connectTimeoutMillis = 1000;
+    private long readTimeoutMillis = 3000;
+    private int maxConnections = 50;
+    private long connectionTtlSeconds = 300;
+    private long idleEvictSeconds = 30;
+    private int maxConcurrentCalls = 25;
+    private long maxWaitMillis = 0;
+    private float failureRateThreshold = 50;
+    private long slowCallMillis = 2000;
+    private float slowCallRateThreshold = 80;
+    private int slidingWindowSize = 20;
+    private int minimumCalls = 10;
+    private long openStateMillis = 10000;
+    private int halfOpenCalls = 3;
+}
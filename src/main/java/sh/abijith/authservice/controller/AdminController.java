@@ -0,0 +1,77 @@
+package sh.abijith.authservice.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sh.abijith.authservice.dto.UserImportResponse;
+import sh.abijith.authservice.model.UserSummary;
+import sh.abijith.authservice.service.UserExportService;
+import sh.abijith.authservice.service.UserImportService;
+import sh.abijith.authservice.service.UserImportService.Format;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AdminController {
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+
+    /**
+     * Imports users from an NDJSON or CSV request body, read as it arrives.
+     *
+     * @param httpRequest the servlet request whose body holds the records
+     * @return the number of imported and rejected users, with the reason for each rejection
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/users/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, Format.CSV_MEDIA_TYPE})
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest httpRequest) throws IOException {
+        Format format = Format.of(MediaType.parseMediaType(httpRequest.getContentType()), null);
+        try (InputStream body = httpRequest.getInputStream()) {
+            return ResponseEntity.ok(userImportService.importUsers(body, format));
+        }
+    }
+
+    /**
+     * Imports users from an uploaded NDJSON or CSV file.
+     *
+     * @param file the file, sent as the {@code file} part of a multipart request
+     * @return the number of imported and rejected users, with the reason for each rejection
+     * @throws IOException if the file cannot be read
+     */
+    @PostMapping(value = "/users/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserImportResponse> importFile(@RequestPart("file") MultipartFile file) throws IOException {
+        Format format = Format.of(
+                file.getContentType() == null ? null : MediaType.parseMediaType(file.getContentType()),
+                file.getOriginalFilename());
+        try (InputStream body = file.getInputStream()) {
+            return ResponseEntity.ok(userImportService.importUsers(body, format));
+        }
+    }
+
+    /**
+     * Streams users as NDJSON in id order, without password hashes. Pages are chained by passing
+     * the id of the last user received as {@code after}; a page shorter than {@code limit} is the last.
+     *
+     * @param after the id of the last user of the previous page, omitted for the first page
+     * @param limit the maximum number of users, or 0 for all remaining users
+     * @return one JSON user per line
+     */
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String after,
+                                                             @RequestParam(defaultValue = "0") int limit) {
+        Stream<UserSummary> users = userExportService.open(after, limit);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> userExportService.write(users, out));
+    }
+}
@@ -1,20 +1,31 @@
 package sh.abijith.authservice.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import sh.abijith.authservice.dto.AuthResponse;
+import sh.abijith.authservice.dto.BatchTokenValidationRequest;
+import sh.abijith.authservice.dto.BatchTokenValidationResponse;
 import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.dto.LogoutRequest;
 import sh.abijith.authservice.dto.RefreshTokenRequest;
 import sh.abijith.authservice.dto.RegisterRequest;
+import sh.abijith.authservice.dto.TokenValidationResult;
+import sh.abijith.authservice.exception.ErrorResponses;
+import sh.abijith.authservice.exception.InvalidTokenException;
 import sh.abijith.authservice.service.AuthService;
 
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthController {
     private final AuthService authService;
+    private final ErrorResponses errorResponses;
 
     /**
      * Registers a new user with the provided registration details.
@@ -31,11 +42,12 @@ public class AuthController {
      * Logs in the user by validating their credentials and returns access and refresh tokens.
      *
      * @param request the login request containing email and password
+     * @param httpRequest the servlet request, used for the caller's address
      * @return the response containing access token, refresh token, and success message
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
     }
 
     /**
@@ -49,15 +61,53 @@ public class AuthController {
         return ResponseEntity.ok(authService.refresh(refreshTokenRequest));
     }
 
+    /**
+     * Logs out by revoking the given access token and refresh token.
+     *
+     * @param request the access token and, optionally, the refresh token to revoke
+     * @return the response confirming the logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@Valid @RequestBody LogoutRequest request) {
+        return ResponseEntity.ok(authService.logout(request));
+    }
+
+    /**
+     * Logs the user out everywhere by revoking all of their access and refresh tokens.
+     *
+     * @param request an access token of the user
+     * @return the response confirming the logout
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<AuthResponse> logoutAll(@Valid @RequestBody LogoutRequest request) {
+        return ResponseEntity.ok(authService.logoutAll(request));
+    }
+
     /**
      * Validates a given JWT token to ensure it's not expired or malformed.
      *
      * @param token the JWT token to validate
-     * @return 200 OK if token is valid
+     * @param httpRequest the servlet request, used for the path of the error body
+     * @return 200 OK if token is valid, 401 with the reason otherwise
      */
     @GetMapping("/validate-token")
-    public ResponseEntity<String> validateToken(@RequestParam String token) {
-        authService.validateToken(token);
+    public ResponseEntity<?> validateToken(@RequestParam String token, HttpServletRequest httpRequest) {
+        TokenValidationResult result = authService.validateToken(token);
+        if (!result.isValid()) {
+            return errorResponses.build(InvalidTokenException.class, HttpStatus.UNAUTHORIZED,
+                    result.getError(), httpRequest.getRequestURI());
+        }
         return ResponseEntity.ok("Token is valid");
     }
+
+    /**
+     * Validates many JWT tokens in one round trip.
+     *
+     * @param request the request containing the tokens to validate
+     * @return the validity, subject, roles and expiry of each token, in request order
+     */
+    @PostMapping("/validate-tokens")
+    public ResponseEntity<BatchTokenValidationResponse> validateTokens(@Valid @RequestBody BatchTokenValidationRequest request) {
+        return ResponseEntity.ok(authService.validateTokens(request));
+    }
 }
@@ -0,0 +1,34 @@
+package sh.abijith.authservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.util.SigningKeyRing;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    private final SigningKeyRing signingKeyRing;
+    private final JwtSigningProperties signingProps;
+
+    /**
+     * Publishes the public signing keys so that other services can verify tokens locally.
+     * Responses are cacheable for {@code jwt.signing.jwks-max-age-seconds} and carry an ETag,
+     * so conditional requests are answered with 304 Not Modified.
+     *
+     * @return the JSON Web Key Set
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(signingProps.getJwksMaxAgeSeconds())).cachePublic())
+                .eTag(signingKeyRing.jwksVersion())
+                .body(signingKeyRing.jwks());
+    }
+}
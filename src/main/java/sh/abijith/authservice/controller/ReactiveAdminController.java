@@ -0,0 +1,88 @@
+package sh.abijith.authservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import sh.abijith.authservice.config.UserExportProperties;
+import sh.abijith.authservice.dto.UserImportResponse;
+import sh.abijith.authservice.model.UserSummary;
+import sh.abijith.authservice.repository.ReactiveUserRepository;
+import sh.abijith.authservice.service.UserImportService;
+import sh.abijith.authservice.service.UserImportService.Format;
+
+import java.io.InputStream;
+
+/**
+ * The {@code /admin} API of {@link AdminController} on the reactive stack. The import reads the
+ * body through a bounded-demand input stream on the bounded elastic scheduler, since parsing,
+ * hashing and the bulk writes block. The export is written as the reactive cursor emits, with
+ * backpressure from the client.
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAdminController {
+    private static final int BUFFER_DEMAND = 16;
+
+    private final UserImportService userImportService;
+    private final ReactiveUserRepository userRepository;
+    private final UserExportProperties exportProps;
+
+    /**
+     * Imports users from an NDJSON or CSV request body, read as it arrives.
+     *
+     * @param contentType the content type of the body
+     * @param body the records
+     * @return the number of imported and rejected users, with the reason for each rejection
+     */
+    @PostMapping(value = "/users/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, Format.CSV_MEDIA_TYPE})
+    public Mono<ResponseEntity<UserImportResponse>> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                @RequestBody Flux<DataBuffer> body) {
+        return importFrom(body, Format.of(contentType, null));
+    }
+
+    /**
+     * Imports users from an uploaded NDJSON or CSV file.
+     *
+     * @param file the file, sent as the {@code file} part of a multipart request
+     * @return the number of imported and rejected users, with the reason for each rejection
+     */
+    @PostMapping(value = "/users/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<UserImportResponse>> importFile(@RequestPart("file") FilePart file) {
+        return Mono.fromCallable(() -> Format.of(file.headers().getContentType(), file.filename()))
+                .flatMap(format -> importFrom(file.content(), format));
+    }
+
+    /**
+     * Streams users as NDJSON in id order, without password hashes. Pages are chained by passing
+     * the id of the last user received as {@code after}; a page shorter than {@code limit} is the last.
+     *
+     * @param after the id of the last user of the previous page, omitted for the first page
+     * @param limit the maximum number of users, or 0 for all remaining users
+     * @return one JSON user per line, written as the cursor delivers them
+     */
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserSummary> exportUsers(@RequestParam(required = false) String after,
+                                         @RequestParam(defaultValue = "0") int limit) {
+        return userRepository.findSummaries(after, limit, exportProps.getCursorBatchSize());
+    }
+
+    private Mono<ResponseEntity<UserImportResponse>> importFrom(Flux<DataBuffer> content, Format format) {
+        return Mono.fromCallable(() -> {
+                    try (InputStream body = DataBufferUtils.subscriberInputStream(content, BUFFER_DEMAND)) {
+                        return ResponseEntity.ok(userImportService.importUsers(body, format));
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,119 @@
+package sh.abijith.authservice.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import sh.abijith.authservice.dto.AuthResponse;
+import sh.abijith.authservice.dto.BatchTokenValidationRequest;
+import sh.abijith.authservice.dto.BatchTokenValidationResponse;
+import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.dto.LogoutRequest;
+import sh.abijith.authservice.dto.RefreshTokenRequest;
+import sh.abijith.authservice.dto.RegisterRequest;
+import sh.abijith.authservice.exception.ErrorResponses;
+import sh.abijith.authservice.exception.InvalidTokenException;
+import sh.abijith.authservice.service.ReactiveAuthService;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The {@code /auth} API of {@link AuthController} on the reactive stack, with the same paths,
+ * request bodies and responses.
+ */
+@RestController
+@RequestMapping("/auth")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+    private final ReactiveAuthService authService;
+    private final ErrorResponses errorResponses;
+
+    /**
+     * Registers a new user with the provided registration details.
+     *
+     * @param request the registration request containing email, password, and user profile info
+     * @return the response containing a message confirming successful registration
+     */
+    @PostMapping("/register")
+    public Mono<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        return authService.register(request).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Logs in the user by validating their credentials and returns access and refresh tokens.
+     *
+     * @param request the login request containing email and password
+     * @param httpRequest the HTTP request, used for the caller's address
+     * @return the response containing access token, refresh token, and success message
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request, ServerHttpRequest httpRequest) {
+        InetSocketAddress remoteAddress = httpRequest.getRemoteAddress();
+        String clientIp = remoteAddress == null ? null : remoteAddress.getHostString();
+        return authService.login(request, clientIp).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Refreshes the access token using the provided refresh token.
+     *
+     * @param refreshTokenRequest the request containing a valid refresh token
+     * @return the response containing a new access token
+     */
+    @PostMapping("/refresh-token")
+    public Mono<ResponseEntity<AuthResponse>> refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return authService.refresh(refreshTokenRequest).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Logs out by revoking the given access token and refresh token.
+     *
+     * @param request the access token and, optionally, the refresh token to revoke
+     * @return the response confirming the logout
+     */
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<AuthResponse>> logout(@Valid @RequestBody LogoutRequest request) {
+        return authService.logout(request).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Logs the user out everywhere by revoking all of their access and refresh tokens.
+     *
+     * @param request an access token of the user
+     * @return the response confirming the logout
+     */
+    @PostMapping("/logout-all")
+    public Mono<ResponseEntity<AuthResponse>> logoutAll(@Valid @RequestBody LogoutRequest request) {
+        return authService.logoutAll(request).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Validates a given JWT token to ensure it's not expired or malformed.
+     *
+     * @param token the JWT token to validate
+     * @param httpRequest the request, used for the path of the error body
+     * @return 200 OK if token is valid, 401 with the reason otherwise
+     */
+    @GetMapping("/validate-token")
+    public Mono<ResponseEntity<?>> validateToken(@RequestParam String token, ServerHttpRequest httpRequest) {
+        return authService.validateToken(token).map(result -> result.isValid()
+                ? ResponseEntity.ok("Token is valid")
+                : errorResponses.build(InvalidTokenException.class, HttpStatus.UNAUTHORIZED,
+                        result.getError(), httpRequest.getPath().value()));
+    }
+
+    /**
+     * Validates many JWT tokens in one round trip.
+     *
+     * @param request the request containing the tokens to validate
+     * @return the validity, subject, roles and expiry of each token, in request order
+     */
+    @PostMapping("/validate-tokens")
+    public Mono<ResponseEntity<BatchTokenValidationResponse>> validateTokens(@Valid @RequestBody BatchTokenValidationRequest request) {
+        return authService.validateTokens(request).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,16 @@
+package sh.abijith.authservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTokenValidationRequest {
+    @NotEmpty
+    private List<String> tokens;
+}
@@ -0,0 +1,12 @@
+package sh.abijith.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchTokenValidationResponse {
+    private List<TokenValidationResult> results;
+}
@@ -0,0 +1,27 @@
+package sh.abijith.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.util.TokenClaims;
+
+import java.util.Date;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+public class TokenValidationResult {
+    private boolean valid;
+    private String subject;
+    private Set<Role> roles;
+    private Date expiresAt;
+    private String error;
+
+    public static TokenValidationResult valid(TokenClaims claims) {
+        return new TokenValidationResult(true, claims.getSubject(), claims.getRoles(), claims.getExpiration(), null);
+    }
+
+    public static TokenValidationResult invalid(String error) {
+        return new TokenValidationResult(false, null, null, null, error);
+    }
+}
@@ -0,0 +1,12 @@
+package sh.abijith.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserImportError {
+    private long line;
+    private String email;
+    private String error;
+}
@@ -0,0 +1,35 @@
+package sh.abijith.authservice.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sh.abijith.authservice.model.Role;
+
+import java.util.Set;
+
+/**
+ * One user of a bulk import. Exactly one of {@code password} and {@code passwordHash} is set;
+ * a hash must carry the {@code {id}} prefix of a supported encoder or be a plain bcrypt hash.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportRecord {
+    @Email
+    @NotBlank
+    private String email;
+
+    private String password;
+
+    private String passwordHash;
+
+    @NotBlank
+    private String firstName;
+
+    @NotBlank
+    private String lastName;
+
+    private Set<Role> roles;
+}
@@ -0,0 +1,21 @@
+package sh.abijith.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists the first {@code auth.import.max-reported-errors}
+ * rejected records; {@code errorsTruncated} tells whether more were rejected than listed.
+ */
+@Data
+@AllArgsConstructor
+public class UserImportResponse {
+    private long received;
+    private long imported;
+    private long failed;
+    private long durationMillis;
+    private List<UserImportError> errors;
+    private boolean errorsTruncated;
+}
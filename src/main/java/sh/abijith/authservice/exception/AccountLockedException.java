@@ -1,6 +1,6 @@
 package sh.abijith.authservice.exception;
 
-public class AccountLockedException extends RuntimeException {
+public class AccountLockedException extends AuthException {
     public AccountLockedException(String message) {
         super(message);
     }
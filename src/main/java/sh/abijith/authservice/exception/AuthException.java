@@ -0,0 +1,14 @@
+package sh.abijith.authservice.exception;
+
+/**
+ * Base of the domain exceptions that reject a request. They are expected outcomes, thrown on every
+ * wrong password, locked account or bad token, and are always mapped to an error response, so they
+ * are created without a stack trace or suppressed exceptions. That keeps a flood of rejections,
+ * such as a credential-stuffing run, from paying for a stack walk per request.
+ */
+public abstract class AuthException extends RuntimeException {
+
+    protected AuthException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package sh.abijith.authservice.exception;
+
+public class BatchTooLargeException extends AuthException {
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,147 @@
+package sh.abijith.authservice.exception;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import sh.abijith.authservice.dto.ErrorResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the error bodies of both exception handlers and of the rejection paths that do not throw.
+ * The JSON is exactly what Jackson produces for an {@link ErrorResponse}, but the part that
+ * depends only on the status and message is serialized once and cached, so a rejection costs a
+ * timestamp format and a few array copies instead of building and serializing an object.
+ * Each error is also counted in {@code auth.errors} by exception type and status.
+ */
+@Component
+@RequiredArgsConstructor
+public class ErrorResponses {
+    private static final int MAX_TEMPLATES = 1024;
+    private static final byte[] OPEN = "{\"timestamp\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSE = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Template, byte[]> templates = Caffeine.newBuilder()
+            .maximumSize(MAX_TEMPLATES)
+            .build();
+    private final Map<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Builds an error response and counts it.
+     *
+     * @param exceptionType the exception the error stands for, used as the {@code exception} tag
+     * @param status the response status
+     * @param message the message to report, may be null
+     * @param path the request path
+     * @return the response with a JSON {@link ErrorResponse} body
+     */
+    public ResponseEntity<byte[]> build(Class<?> exceptionType, HttpStatus status, String message, String path) {
+        counters.computeIfAbsent(new CounterKey(exceptionType, status.value()), this::counter).increment();
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(render(status, message, path));
+    }
+
+    byte[] render(HttpStatus status, String message, String path) {
+        byte[] timestamp = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now(clock))
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] middle = templates.get(new Template(status, message), ErrorResponses::serializeMiddle);
+        byte[] escapedPath = escape(path).getBytes(StandardCharsets.UTF_8);
+
+        byte[] body = new byte[OPEN.length + timestamp.length + middle.length + escapedPath.length + CLOSE.length];
+        int offset = 0;
+        System.arraycopy(OPEN, 0, body, offset, OPEN.length);
+        offset += OPEN.length;
+        System.arraycopy(timestamp, 0, body, offset, timestamp.length);
+        offset += timestamp.length;
+        System.arraycopy(middle, 0, body, offset, middle.length);
+        offset += middle.length;
+        System.arraycopy(escapedPath, 0, body, offset, escapedPath.length);
+        offset += escapedPath.length;
+        System.arraycopy(CLOSE, 0, body, offset, CLOSE.length);
+        return body;
+    }
+
+    /**
+     * Serializes everything between the timestamp and the path value.
+     */
+    private static byte[] serializeMiddle(Template template) {
+        var json = new StringBuilder(96)
+                .append("\",\"status\":").append(template.status().value())
+                .append(",\"error\":\"").append(escape(template.status().getReasonPhrase()))
+                .append("\",\"message\":");
+        if (template.message() == null) {
+            json.append("null");
+        } else {
+            json.append('"').append(escape(template.message())).append('"');
+        }
+        json.append(",\"path\":\"");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escapes a string the way Jackson does: quote, backslash and control characters only.
+     */
+    static String escape(String value) {
+        int i = 0;
+        while (i < value.length() && !needsEscape(value.charAt(i))) {
+            i++;
+        }
+        if (i == value.length()) {
+            return value;
+        }
+
+        var escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                case '\b' -> escaped.append("\\b");
+                case '\f' -> escaped.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04X", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static boolean needsEscape(char c) {
+        return c < 0x20 || c == '"' || c == '\\';
+    }
+
+    private Counter counter(CounterKey key) {
+        return Counter.builder("auth.errors")
+                .description("Requests answered with an error, by exception type and status")
+                .tag("exception", key.exceptionType().getSimpleName())
+                .tag("status", String.valueOf(key.status()))
+                .register(meterRegistry);
+    }
+
+    private record Template(HttpStatus status, String message) {
+    }
+
+    private record CounterKey(Class<?> exceptionType, int status) {
+    }
+}
@@ -0,0 +1,7 @@
+package sh.abijith.authservice.exception;
+
+public class InvalidCursorException extends AuthException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package sh.abijith.authservice.exception;
+
+public class InvalidImportException extends AuthException {
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package sh.abijith.authservice.exception;
 
-public class InvalidRefreshTokenException extends RuntimeException {
+public class InvalidRefreshTokenException extends AuthException {
     public InvalidRefreshTokenException(String message) {
         super(message);
     }
@@ -1,6 +1,6 @@
 package sh.abijith.authservice.exception;
 
-public class InvalidTokenException extends RuntimeException {
+public class InvalidTokenException extends AuthException {
     public InvalidTokenException(String message) {
         super(message);
     }
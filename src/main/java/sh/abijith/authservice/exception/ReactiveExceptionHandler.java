@@ -0,0 +1,111 @@
+package sh.abijith.authservice.exception;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import sh.abijith.authservice.dto.ErrorResponse;
+
+/**
+ * The error mapping of {@link GlobalExceptionHandler} on the reactive stack, producing the same
+ * statuses and {@link ErrorResponse} bodies.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+    private final ErrorResponses errorResponses;
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public Mono<ResponseEntity<byte[]>> handleUserNotFound(UserNotFoundException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(UserAlreadyExistsException.class)
+    public Mono<ResponseEntity<byte[]>> handleUserAlreadyExists(UserAlreadyExistsException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(InvalidCredentialsException.class)
+    public Mono<ResponseEntity<byte[]>> handleInvalidCredentials(InvalidCredentialsException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.UNAUTHORIZED, exchange);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public Mono<ResponseEntity<byte[]>> handleInvalidCredentials(InvalidRefreshTokenException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.UNAUTHORIZED, exchange);
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public Mono<ResponseEntity<byte[]>> handleBatchTooLarge(BatchTooLargeException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public Mono<ResponseEntity<byte[]>> handleInvalidImport(InvalidImportException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public Mono<ResponseEntity<byte[]>> handleInvalidCursor(InvalidCursorException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(AccountLockedException.class)
+    public Mono<ResponseEntity<byte[]>> handleAccountLocked(AccountLockedException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.FORBIDDEN, exchange);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public Mono<ResponseEntity<byte[]>> handleServiceBusy(ServiceBusyException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, exchange)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders())
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                        .body(response.getBody()));
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public Mono<ResponseEntity<byte[]>> handleTooManyAttempts(TooManyAttemptsException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.TOO_MANY_REQUESTS, exchange)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders())
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                        .body(response.getBody()));
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public Mono<ResponseEntity<byte[]>> handleValidation(WebExchangeBindException ex, ServerWebExchange exchange) {
+        String message = ex.getBindingResult().getAllErrors().getFirst().getDefaultMessage();
+        return buildErrorResponse(new RuntimeException(message), HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public Mono<ResponseEntity<byte[]>> handleInvalidToken(InvalidTokenException ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.UNAUTHORIZED, exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public Mono<ResponseEntity<byte[]>> handleGeneric(Exception ex, ServerWebExchange exchange) {
+        return buildErrorResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, exchange);
+    }
+
+    /**
+     * Builds the error body and records the failure, as {@link GlobalExceptionHandler} does.
+     * The observation context is read from the Reactor context of the request.
+     */
+    private Mono<ResponseEntity<byte[]>> buildErrorResponse(Exception ex, HttpStatus status, ServerWebExchange exchange) {
+        return Mono.deferContextual(context -> {
+            ServerRequestObservationContext.findCurrent(context).ifPresent(observation -> observation.setError(ex));
+            return Mono.just(errorResponses.build(ex.getClass(), status, ex.getMessage(),
+                    exchange.getRequest().getPath().value()));
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package sh.abijith.authservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceBusyException extends AuthException {
+    private final int retryAfterSeconds;
+
+    public ServiceBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package sh.abijith.authservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyAttemptsException extends AuthException {
+    private final int retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
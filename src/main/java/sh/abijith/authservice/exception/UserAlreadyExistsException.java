@@ -1,6 +1,6 @@
 package sh.abijith.authservice.exception;
 
-public class UserAlreadyExistsException extends RuntimeException {
+public class UserAlreadyExistsException extends AuthException {
     public UserAlreadyExistsException(String message) {
         super(message);
     }
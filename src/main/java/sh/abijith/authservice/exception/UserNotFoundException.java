@@ -1,6 +1,6 @@
 package sh.abijith.authservice.exception;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends AuthException {
     public UserNotFoundException(String message) {
         super(message);
     }
@@ -2,6 +2,7 @@ package sh.abijith.authservice.mapper;
 
 import org.springframework.stereotype.Component;
 import sh.abijith.authservice.dto.RegisterRequest;
+import sh.abijith.authservice.dto.UserImportRecord;
 import sh.abijith.authservice.dto.UserProfileRequest;
 import sh.abijith.authservice.model.User;
 
@@ -19,4 +20,15 @@ public class UserMapper {
         );
     }
 
+    // Maps an imported User entity to UserProfileRequest DTO
+    public UserProfileRequest toUserProfileRequest(User user, UserImportRecord record) {
+        return new UserProfileRequest(
+                user.getId(),
+                record.getEmail(),
+                record.getFirstName(),
+                record.getLastName(),
+                record.getRoles()
+        );
+    }
+
 }
@@ -0,0 +1,6 @@
+package sh.abijith.authservice.model;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,54 @@
+package sh.abijith.authservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sh.abijith.authservice.dto.UserProfileRequest;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * A user-profile creation waiting to be delivered to user-service. Embedded in the {@link User}
+ * it belongs to, so the user and its profile creation are written by the same single-document
+ * insert, and a profile is queued at most once per user.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProfileOutboxEntry {
+    private UserProfileRequest profile;
+
+    private OutboxStatus status = OutboxStatus.PENDING;
+    private int attempts = 0;
+    private Date nextAttemptAt;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    /**
+     * Queues a profile creation that is due at once.
+     *
+     * @param profile the profile to create
+     * @param clock the clock giving the creation and first attempt time
+     * @return the pending entry
+     */
+    public static ProfileOutboxEntry of(UserProfileRequest profile, Clock clock) {
+        var entry = new ProfileOutboxEntry();
+        entry.setProfile(profile);
+        entry.setNextAttemptAt(new Date(clock.millis()));
+        entry.setCreatedAt(LocalDateTime.now(clock));
+        return entry;
+    }
+
+    /**
+     * Returns the id of the user the profile belongs to, which is also the id of the document
+     * the entry is embedded in.
+     *
+     * @return the user id
+     */
+    public String userId() {
+        return profile.getUserId();
+    }
+}
@@ -0,0 +1,39 @@
+package sh.abijith.authservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * An issued refresh token, keyed by its {@code jti}. Every refresh consumes the presented token
+ * and issues a child in the same family; the family starts at login. A token that is presented
+ * again after it was used marks the family as compromised. Documents are removed by a TTL index
+ * once the token has expired.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+
+    @Indexed
+    private String familyId;
+
+    private String parentId;
+
+    @Indexed
+    private String subject;
+
+    private Date createdAt;
+    private Date usedAt;
+
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+}
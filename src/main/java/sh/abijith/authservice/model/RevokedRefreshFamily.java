@@ -0,0 +1,31 @@
+package sh.abijith.authservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A refresh-token family that may no longer be used, keyed by the family id. Kept until the
+ * last token the family could contain has expired, then removed by a TTL index.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "revoked_refresh_families")
+public class RevokedRefreshFamily {
+    @Id
+    private String id;
+
+    private String subject;
+
+    @Indexed
+    private Date revokedAt;
+
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+}
@@ -0,0 +1,36 @@
+package sh.abijith.authservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * An asymmetric token signing key. The id is the {@code kid} placed in token headers.
+ * Keys are DER encoded: PKCS#8 for the private key and X.509 for the public key. The private
+ * key is stored encrypted with AES-GCM under {@code jwt.signing.key-encryption-key}; the public
+ * key is stored as plain base64.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "signing_keys")
+public class SigningKey {
+    @Id
+    private String id;
+
+    private String algorithm;
+
+    private String privateKey;
+    private String publicKey;
+
+    private Date createdAt;
+    private Date activateAt;
+
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+}
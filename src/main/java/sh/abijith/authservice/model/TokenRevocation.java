@@ -0,0 +1,42 @@
+package sh.abijith.authservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A revoked access token, or all access tokens of a subject issued before {@code notBefore}.
+ * Exactly one of {@code tokenId} and {@code notBefore} is set. Kept until every token it
+ * covers has expired, then removed by a TTL index.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "token_revocations")
+public class TokenRevocation {
+    @Id
+    private String id;
+
+    private String subject;
+    private String tokenId;
+    private Date notBefore;
+
+    @Indexed
+    private Date revokedAt;
+
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public static TokenRevocation ofToken(String tokenId, String subject, Date revokedAt, Date expiresAt) {
+        return new TokenRevocation("jti:" + tokenId, subject, tokenId, null, revokedAt, expiresAt);
+    }
+
+    public static TokenRevocation ofSubject(String subject, Date notBefore, Date revokedAt, Date expiresAt) {
+        return new TokenRevocation("sub:" + subject, subject, null, notBefore, revokedAt, expiresAt);
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,6 +17,9 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "users")
+@CompoundIndex(name = "locked_lockTime", def = "{'locked': 1, 'lockTime': 1}", partialFilter = "{'locked': true}")
+@CompoundIndex(name = "profileOutbox_due", def = "{'profileOutbox.status': 1, 'profileOutbox.nextAttemptAt': 1}",
+        partialFilter = "{'profileOutbox': {$exists: true}}")
 public class User {
     @Id
     private String id;
@@ -33,6 +37,11 @@ public class User {
     private boolean locked = false;
     private Date lockTime;
 
+    /**
+     * The profile creation still to be delivered to user-service; removed once it is acknowledged.
+     */
+    private ProfileOutboxEntry profileOutbox;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,42 @@
+package sh.abijith.authservice.model;
+
+import lombok.Value;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * The fields of a {@link User} that the login path needs.
+ */
+@Value
+public class UserCredentials {
+    String id;
+    String email;
+    String password;
+    Set<Role> roles;
+    boolean enabled;
+    int failedAttempts;
+    boolean locked;
+    Date lockTime;
+
+    public static UserCredentials from(User user) {
+        return new UserCredentials(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                Set.copyOf(user.getRoles()),
+                user.isEnabled(),
+                user.getFailedAttempts(),
+                user.isLocked(),
+                user.getLockTime());
+    }
+
+    /**
+     * Returns a copy with the failure counter and lock cleared.
+     *
+     * @return the unlocked credentials
+     */
+    public UserCredentials unlocked() {
+        return new UserCredentials(id, email, password, roles, enabled, 0, false, null);
+    }
+}
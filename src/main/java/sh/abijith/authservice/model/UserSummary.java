@@ -0,0 +1,23 @@
+package sh.abijith.authservice.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * A {@link User} without its password hash, as listed by the admin export.
+ */
+@Value
+public class UserSummary {
+    String id;
+    String email;
+    Set<Role> roles;
+    boolean enabled;
+    int failedAttempts;
+    boolean locked;
+    Date lockTime;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+}
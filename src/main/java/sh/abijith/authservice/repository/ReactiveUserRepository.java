@@ -0,0 +1,26 @@
+package sh.abijith.authservice.repository;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserCredentials;
+
+/**
+ * Non-blocking counterpart of {@link UserRepository} for the reactive stack. Queries and
+ * projections are the same, so both stacks read and write identical documents.
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String>, ReactiveUserRepositoryCustom {
+
+    /**
+     * Loads only the fields needed to authenticate, skipping timestamps and other profile data.
+     *
+     * @param email the email to look up
+     * @return the credential view of the user, or empty if there is none
+     */
+    @Query(value = "{ 'email': ?0 }",
+            fields = "{ 'email': 1, 'password': 1, 'roles': 1, 'enabled': 1, 'failedAttempts': 1, 'locked': 1, 'lockTime': 1 }")
+    Mono<UserCredentials> findCredentialsByEmail(String email);
+}
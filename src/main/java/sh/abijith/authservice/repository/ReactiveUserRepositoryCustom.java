@@ -0,0 +1,64 @@
+package sh.abijith.authservice.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import sh.abijith.authservice.model.UserSummary;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Non-blocking versions of the targeted login-path updates in {@link UserRepositoryCustom}.
+ */
+public interface ReactiveUserRepositoryCustom {
+
+    /**
+     * Atomically increments the failed attempt counter and locks the account once it reaches the threshold.
+     *
+     * @param userId the id of the user whose login attempt failed
+     * @param maxFailedAttempts the number of failures that locks the account
+     * @param lockTime the lock timestamp to record if this attempt locks the account
+     * @return the failed attempt count after this increment, or 0 if the user no longer exists
+     */
+    Mono<Integer> incrementFailedAttempts(String userId, int maxFailedAttempts, Date lockTime);
+
+    /**
+     * Clears the failed attempt counter and any lock.
+     *
+     * @param userId the id of the user to reset
+     * @param updatedAt the modification time to record
+     * @return completes when the update has been applied
+     */
+    Mono<Void> resetFailedAttempts(String userId, LocalDateTime updatedAt);
+
+    /**
+     * Unlocks the account only if it is still locked with the given lock time.
+     *
+     * @param userId the id of the user to unlock
+     * @param lockTime the lock time the caller observed
+     * @param updatedAt the modification time to record
+     * @return true if this call unlocked the account
+     */
+    Mono<Boolean> unlock(String userId, Date lockTime, LocalDateTime updatedAt);
+
+    /**
+     * Replaces the stored password hash.
+     *
+     * @param userId the id of the user
+     * @param encodedPassword the new hash
+     * @param updatedAt the modification time to record
+     * @return completes when the update has been applied
+     */
+    Mono<Void> updatePassword(String userId, String encodedPassword, LocalDateTime updatedAt);
+
+    /**
+     * Streams users in {@code _id} order without their password hashes, as
+     * {@link UserRepositoryCustom#streamSummaries} does.
+     *
+     * @param afterId only users with a greater id are returned; null to start from the first user
+     * @param limit the maximum number of users to return, or 0 for no limit
+     * @param batchSize the number of users fetched per cursor round trip
+     * @return the users, in ascending id order
+     */
+    Flux<UserSummary> findSummaries(String afterId, int limit, int batchSize);
+}
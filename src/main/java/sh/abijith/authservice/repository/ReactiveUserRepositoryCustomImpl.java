@@ -0,0 +1,78 @@
+package sh.abijith.authservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserSummary;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ReactiveUserRepositoryCustomImpl implements ReactiveUserRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Integer> incrementFailedAttempts(String userId, int maxFailedAttempts, Date lockTime) {
+        Query byId = query(where("_id").is(userId));
+        byId.fields().include("failedAttempts", "locked");
+
+        return mongoTemplate.findAndModify(
+                        byId,
+                        new Update().inc("failedAttempts", 1),
+                        FindAndModifyOptions.options().returnNew(true),
+                        User.class)
+                .flatMap(updated -> {
+                    if (updated.isLocked() || updated.getFailedAttempts() < maxFailedAttempts) {
+                        return Mono.just(updated.getFailedAttempts());
+                    }
+                    return mongoTemplate.updateFirst(
+                                    query(where("_id").is(userId).and("locked").is(false)),
+                                    new Update().set("locked", true).set("lockTime", lockTime),
+                                    User.class)
+                            .thenReturn(updated.getFailedAttempts());
+                })
+                .defaultIfEmpty(0);
+    }
+
+    @Override
+    public Mono<Void> resetFailedAttempts(String userId, LocalDateTime updatedAt) {
+        return mongoTemplate.updateFirst(
+                query(where("_id").is(userId)),
+                UserRepositoryCustomImpl.clearLock(updatedAt),
+                User.class).then();
+    }
+
+    @Override
+    public Mono<Boolean> unlock(String userId, Date lockTime, LocalDateTime updatedAt) {
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(userId).and("locked").is(true).and("lockTime").is(lockTime)),
+                        UserRepositoryCustomImpl.clearLock(updatedAt),
+                        User.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    @Override
+    public Mono<Void> updatePassword(String userId, String encodedPassword, LocalDateTime updatedAt) {
+        return mongoTemplate.updateFirst(
+                query(where("_id").is(userId)),
+                new Update().set("password", encodedPassword).set("updatedAt", updatedAt),
+                User.class).then();
+    }
+
+    @Override
+    public Flux<UserSummary> findSummaries(String afterId, int limit, int batchSize) {
+        return mongoTemplate.query(User.class)
+                .as(UserSummary.class)
+                .matching(UserRepositoryCustomImpl.summaryPage(afterId, limit, batchSize))
+                .all();
+    }
+}
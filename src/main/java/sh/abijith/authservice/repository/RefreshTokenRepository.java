@@ -0,0 +1,12 @@
+package sh.abijith.authservice.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import sh.abijith.authservice.model.RefreshToken;
+
+import java.util.List;
+
+@Repository
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String>, RefreshTokenRepositoryCustom {
+    List<RefreshToken> findBySubjectAndUsedAtIsNull(String subject);
+}
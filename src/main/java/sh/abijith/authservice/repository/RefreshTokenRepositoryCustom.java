@@ -0,0 +1,23 @@
+package sh.abijith.authservice.repository;
+
+import java.util.Date;
+
+public interface RefreshTokenRepositoryCustom {
+
+    /**
+     * Marks a refresh token as used, unless it already is.
+     *
+     * @param id the token's {@code jti}
+     * @param usedAt the time of use
+     * @return true if this call consumed the token, false if it is unknown or was already used
+     */
+    boolean markUsed(String id, Date usedAt);
+
+    /**
+     * Marks every unused token of a family as used, so none of them can be rotated again.
+     *
+     * @param familyId the family to revoke
+     * @param revokedAt the time of revocation
+     */
+    void revokeFamily(String familyId, Date revokedAt);
+}
@@ -0,0 +1,32 @@
+package sh.abijith.authservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import sh.abijith.authservice.model.RefreshToken;
+
+import java.util.Date;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class RefreshTokenRepositoryCustomImpl implements RefreshTokenRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean markUsed(String id, Date usedAt) {
+        return mongoTemplate.updateFirst(
+                query(where("_id").is(id).and("usedAt").is(null)),
+                new Update().set("usedAt", usedAt),
+                RefreshToken.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public void revokeFamily(String familyId, Date revokedAt) {
+        mongoTemplate.updateMulti(
+                query(where("familyId").is(familyId).and("usedAt").is(null)),
+                new Update().set("usedAt", revokedAt),
+                RefreshToken.class);
+    }
+}
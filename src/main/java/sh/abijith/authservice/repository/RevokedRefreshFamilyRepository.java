@@ -0,0 +1,13 @@
+package sh.abijith.authservice.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import sh.abijith.authservice.model.RevokedRefreshFamily;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RevokedRefreshFamilyRepository extends MongoRepository<RevokedRefreshFamily, String> {
+    List<RevokedRefreshFamily> findByRevokedAtGreaterThanEqual(Date since);
+}
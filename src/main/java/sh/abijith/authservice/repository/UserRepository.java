@@ -1,12 +1,24 @@
 package sh.abijith.authservice.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserCredentials;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Loads only the fields needed to authenticate, skipping timestamps and other profile data.
+     *
+     * @param email the email to look up
+     * @return the credential view of the user, if present
+     */
+    @Query(value = "{ 'email': ?0 }",
+            fields = "{ 'email': 1, 'password': 1, 'roles': 1, 'enabled': 1, 'failedAttempts': 1, 'locked': 1, 'lockTime': 1 }")
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+}
@@ -0,0 +1,123 @@
+package sh.abijith.authservice.repository;
+
+import sh.abijith.authservice.model.ProfileOutboxEntry;
+import sh.abijith.authservice.model.UserSummary;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Targeted single-document updates for the login path, so that concurrent attempts never
+ * overwrite each other's changes by saving a whole {@code User}, plus the bulk reads and
+ * updates behind the admin endpoints and maintenance jobs, and the claims and acknowledgements
+ * of the profile creations embedded in users.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Atomically increments the failed attempt counter and locks the account once it reaches the threshold.
+     *
+     * @param userId the id of the user whose login attempt failed
+     * @param maxFailedAttempts the number of failures that locks the account
+     * @param lockTime the lock timestamp to record if this attempt locks the account
+     * @return the failed attempt count after this increment, or 0 if the user no longer exists
+     */
+    int incrementFailedAttempts(String userId, int maxFailedAttempts, Date lockTime);
+
+    /**
+     * Clears the failed attempt counter and any lock.
+     *
+     * @param userId the id of the user to reset
+     * @param updatedAt the modification time to record
+     */
+    void resetFailedAttempts(String userId, LocalDateTime updatedAt);
+
+    /**
+     * Unlocks the account only if it is still locked with the given lock time, so a lock
+     * placed by a concurrent attempt after the caller's read is left untouched.
+     *
+     * @param userId the id of the user to unlock
+     * @param lockTime the lock time the caller observed
+     * @param updatedAt the modification time to record
+     * @return true if this call unlocked the account
+     */
+    boolean unlock(String userId, Date lockTime, LocalDateTime updatedAt);
+
+    /**
+     * Locks the account with the given email unless it is already locked.
+     *
+     * @param email the email of the account to lock
+     * @param lockTime the time the lock was placed
+     * @return true if this call locked the account
+     */
+    boolean lockByEmail(String email, Date lockTime);
+
+    /**
+     * Replaces the stored password hash.
+     *
+     * @param userId the id of the user
+     * @param encodedPassword the new hash
+     * @param updatedAt the modification time to record
+     */
+    void updatePassword(String userId, String encodedPassword, LocalDateTime updatedAt);
+
+    /**
+     * Clears every lock placed at or before the given time in a single update, using the
+     * partial index on {@code locked} and {@code lockTime}.
+     *
+     * @param lockedBefore the latest lock time that has expired
+     * @param updatedAt the modification time to record
+     * @return the number of accounts unlocked
+     */
+    long unlockExpired(Date lockedBefore, LocalDateTime updatedAt);
+
+    /**
+     * Streams users in {@code _id} order from a server-side cursor, without their password hashes.
+     * The stream must be closed to release the cursor.
+     *
+     * @param afterId only users with a greater id are returned; null to start from the first user
+     * @param limit the maximum number of users to return, or 0 for no limit
+     * @param batchSize the number of users fetched per cursor round trip
+     * @return the users, in ascending id order
+     * @throws sh.abijith.authservice.exception.InvalidCursorException if {@code afterId} is not a user id
+     */
+    Stream<UserSummary> streamSummaries(String afterId, int limit, int batchSize);
+
+    /**
+     * Claims up to {@code batchSize} due profile creations by pushing their next attempt to
+     * {@code leaseUntil}, so that other instances skip them while this one delivers.
+     *
+     * @param batchSize the maximum number of entries to claim
+     * @param now entries due at or before this time are eligible
+     * @param leaseUntil when a claimed entry becomes eligible again if it is never acknowledged
+     * @return the claimed entries, with their attempt counter already incremented
+     */
+    List<ProfileOutboxEntry> claimProfileOutbox(int batchSize, Date now, Date leaseUntil);
+
+    /**
+     * Schedules another delivery attempt of a user's profile creation, or marks it failed.
+     *
+     * @param userId the id of the user
+     * @param nextAttemptAt when to retry
+     * @param failed true if the entry has exhausted its attempts
+     * @param error a description of the last failure
+     */
+    void rescheduleProfileOutbox(String userId, Date nextAttemptAt, boolean failed, String error);
+
+    /**
+     * Puts a claimed profile creation back without spending an attempt, for deliveries that were never sent.
+     *
+     * @param userId the id of the user
+     * @param nextAttemptAt when to try again
+     */
+    void deferProfileOutbox(String userId, Date nextAttemptAt);
+
+    /**
+     * Removes a delivered profile creation from its user.
+     *
+     * @param userId the id of the user
+     */
+    void clearProfileOutbox(String userId);
+}
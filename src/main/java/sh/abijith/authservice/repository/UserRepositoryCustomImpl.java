@@ -0,0 +1,170 @@
+package sh.abijith.authservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import sh.abijith.authservice.exception.InvalidCursorException;
+import sh.abijith.authservice.model.OutboxStatus;
+import sh.abijith.authservice.model.ProfileOutboxEntry;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public int incrementFailedAttempts(String userId, int maxFailedAttempts, Date lockTime) {
+        Query byId = query(where("_id").is(userId));
+        byId.fields().include("failedAttempts", "locked");
+
+        User updated = mongoTemplate.findAndModify(
+                byId,
+                new Update().inc("failedAttempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        if (updated == null) {
+            return 0;
+        }
+
+        if (!updated.isLocked() && updated.getFailedAttempts() >= maxFailedAttempts) {
+            mongoTemplate.updateFirst(
+                    query(where("_id").is(userId).and("locked").is(false)),
+                    new Update().set("locked", true).set("lockTime", lockTime),
+                    User.class);
+        }
+        return updated.getFailedAttempts();
+    }
+
+    @Override
+    public void resetFailedAttempts(String userId, LocalDateTime updatedAt) {
+        mongoTemplate.updateFirst(
+                query(where("_id").is(userId)),
+                clearLock(updatedAt),
+                User.class);
+    }
+
+    @Override
+    public boolean unlock(String userId, Date lockTime, LocalDateTime updatedAt) {
+        return mongoTemplate.updateFirst(
+                query(where("_id").is(userId).and("locked").is(true).and("lockTime").is(lockTime)),
+                clearLock(updatedAt),
+                User.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean lockByEmail(String email, Date lockTime) {
+        return mongoTemplate.updateFirst(
+                query(where("email").is(email).and("locked").is(false)),
+                new Update().set("locked", true).set("lockTime", lockTime),
+                User.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public void updatePassword(String userId, String encodedPassword, LocalDateTime updatedAt) {
+        mongoTemplate.updateFirst(
+                query(where("_id").is(userId)),
+                new Update().set("password", encodedPassword).set("updatedAt", updatedAt),
+                User.class);
+    }
+
+    @Override
+    public long unlockExpired(Date lockedBefore, LocalDateTime updatedAt) {
+        return mongoTemplate.updateMulti(
+                query(where("locked").is(true).and("lockTime").lte(lockedBefore)),
+                clearLock(updatedAt),
+                User.class).getModifiedCount();
+    }
+
+    @Override
+    public Stream<UserSummary> streamSummaries(String afterId, int limit, int batchSize) {
+        return mongoTemplate.query(User.class)
+                .as(UserSummary.class)
+                .matching(summaryPage(afterId, limit, batchSize))
+                .stream();
+    }
+
+    @Override
+    public List<ProfileOutboxEntry> claimProfileOutbox(int batchSize, Date now, Date leaseUntil) {
+        Query due = query(where("profileOutbox.status").is(OutboxStatus.PENDING).and("profileOutbox.nextAttemptAt").lte(now))
+                .with(Sort.by("profileOutbox.nextAttemptAt"));
+        due.fields().include("profileOutbox");
+
+        List<ProfileOutboxEntry> claimed = new ArrayList<>(batchSize);
+        while (claimed.size() < batchSize) {
+            User user = mongoTemplate.findAndModify(
+                    due,
+                    new Update().set("profileOutbox.nextAttemptAt", leaseUntil).inc("profileOutbox.attempts", 1),
+                    FindAndModifyOptions.options().returnNew(true),
+                    User.class);
+            if (user == null) {
+                break;
+            }
+            claimed.add(user.getProfileOutbox());
+        }
+        return claimed;
+    }
+
+    @Override
+    public void rescheduleProfileOutbox(String userId, Date nextAttemptAt, boolean failed, String error) {
+        mongoTemplate.updateFirst(
+                query(where("_id").is(userId).and("profileOutbox").exists(true)),
+                new Update()
+                        .set("profileOutbox.nextAttemptAt", nextAttemptAt)
+                        .set("profileOutbox.status", failed ? OutboxStatus.FAILED : OutboxStatus.PENDING)
+                        .set("profileOutbox.lastError", error),
+                User.class);
+    }
+
+    @Override
+    public void deferProfileOutbox(String userId, Date nextAttemptAt) {
+        mongoTemplate.updateFirst(
+                query(where("_id").is(userId).and("profileOutbox").exists(true)),
+                new Update().set("profileOutbox.nextAttemptAt", nextAttemptAt).inc("profileOutbox.attempts", -1),
+                User.class);
+    }
+
+    @Override
+    public void clearProfileOutbox(String userId) {
+        mongoTemplate.updateFirst(
+                query(where("_id").is(userId)),
+                new Update().unset("profileOutbox"),
+                User.class);
+    }
+
+    /**
+     * Builds the keyset query for one page of users: ids above the cursor, in ascending order.
+     *
+     * @throws InvalidCursorException if the cursor is not a user id
+     */
+    static Query summaryPage(String afterId, int limit, int batchSize) {
+        if (afterId != null && !ObjectId.isValid(afterId)) {
+            throw new InvalidCursorException("Invalid cursor: " + afterId);
+        }
+        Query page = afterId == null ? new Query() : query(where("_id").gt(new ObjectId(afterId)));
+        return page.with(Sort.by("_id"))
+                .limit(Math.max(0, limit))
+                .cursorBatchSize(batchSize);
+    }
+
+    static Update clearLock(LocalDateTime updatedAt) {
+        return new Update()
+                .set("failedAttempts", 0)
+                .set("locked", false)
+                .unset("lockTime")
+                .set("updatedAt", updatedAt);
+    }
+}
@@ -1,17 +1,24 @@
 package sh.abijith.authservice.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import sh.abijith.authservice.client.UserClient;
+import sh.abijith.authservice.config.JwtProperties;
 import sh.abijith.authservice.config.LoginSecurityProperties;
 import sh.abijith.authservice.dto.*;
 import sh.abijith.authservice.exception.*;
 import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.model.ProfileOutboxEntry;
 import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserCredentials;
 import sh.abijith.authservice.repository.UserRepository;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.AuthMetrics.Stage;
 import sh.abijith.authservice.util.JwtService;
+import sh.abijith.authservice.util.TokenDenyList;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.Date;
 
@@ -19,34 +26,47 @@ import java.util.Date;
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final LoginSecurityProperties loginSecurityProps;
-    private final UserClient userClient;
     private final UserMapper userMapper;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenDenyList tokenDenyList;
+    private final JwtProperties jwtProperties;
+    private final Clock clock;
+    private final AuthMetrics authMetrics;
 
     /**
-     * Registers a new user and creates a corresponding user profile in the user service.
+     * Registers a new user and queues creation of the corresponding user profile, which
+     * {@link ProfileOutboxDispatcher} delivers to the user service in the background. The profile
+     * is embedded in the user document, so both are written by one atomic insert.
+     * Duplicates are rejected by the unique index on {@code email}, without a separate read.
      *
      * @param request the registration request containing email, password, and user profile info
      * @return response message confirming registration
+     * @throws UserAlreadyExistsException if a user with the email already exists
      */
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new UserAlreadyExistsException("User with this email already exists");
-        }
-
+        long t = System.nanoTime();
         var user = new User();
+        user.setId(new ObjectId().toHexString());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setRoles(request.getRoles());
-        user.setCreatedAt(LocalDateTime.now());
-        user.setUpdatedAt(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now(clock);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        user.setProfileOutbox(ProfileOutboxEntry.of(userMapper.toUserProfileRequest(user, request), clock));
+        t = authMetrics.record(Stage.REGISTER_PASSWORD_HASH, true, t);
 
-        userRepository.save(user);
-
-        var profile = userMapper.toUserProfileRequest(user, request);
-        userClient.createUserProfile(profile);
+        try {
+            userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            authMetrics.record(Stage.REGISTER_SAVE, false, t);
+            throw new UserAlreadyExistsException("User with this email already exists");
+        }
+        authMetrics.record(Stage.REGISTER_SAVE, true, t);
 
         return new AuthResponse(null, null, "Registration is Successful. Please Login Again");
     }
@@ -55,85 +75,207 @@ public class AuthService {
      * Authenticates the user and generates JWT tokens upon successful login.
      *
      * @param request the login request containing email and password
+     * @param clientIp the remote address of the caller, used for per-IP throttling
      * @return the response containing access token, refresh token, and success message
      * @throws InvalidCredentialsException if the credentials are incorrect
      * @throws AccountLockedException if the account is locked due to too many failed attempts
+     * @throws TooManyAttemptsException if the caller's IP has too many recent failures
      */
-    public AuthResponse login(LoginRequest request) {
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        long t = System.nanoTime();
+        try {
+            loginAttemptLimiter.checkAllowed(request.getEmail(), clientIp);
+        } catch (AccountLockedException | TooManyAttemptsException e) {
+            authMetrics.record(Stage.LOGIN_LIMITER_CHECK, false, t);
+            throw e;
+        }
+        t = authMetrics.record(Stage.LOGIN_LIMITER_CHECK, true, t);
+
+        var user = userRepository.findCredentialsByEmail(request.getEmail()).orElse(null);
+        t = authMetrics.record(Stage.LOGIN_USER_LOOKUP, user != null, t);
+        if (user == null) {
+            loginAttemptLimiter.recordUnknownEmail(request.getEmail(), clientIp);
+            throw new UserNotFoundException("User not found");
+        }
 
         if (user.isLocked()) {
             if (isLockExpired(user)) {
-                unlock(user);
+                user = unlock(user);
             } else {
+                loginAttemptLimiter.lock(user.getEmail(), user.getLockTime());
+                authMetrics.record(Stage.LOGIN_LOCK_CHECK, false, t);
                 throw new AccountLockedException("Account is temporarily locked. Try again later.");
             }
+            t = authMetrics.record(Stage.LOGIN_LOCK_CHECK, true, t);
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            incrementFailedAttempts(user);
+        boolean matches = passwordHashingService.matches(request.getPassword(), user.getPassword());
+        t = authMetrics.record(Stage.LOGIN_PASSWORD_VERIFY, matches, t);
+        if (!matches) {
+            recordFailedAttempt(user, clientIp);
+            authMetrics.record(Stage.LOGIN_LOCKOUT_WRITE, true, t);
             throw new InvalidCredentialsException("Invalid email or password");
         }
 
+        loginAttemptLimiter.recordSuccess(user.getEmail());
+        upgradePasswordHash(user, request.getPassword());
         resetFailedAttempts(user);
+        t = authMetrics.record(Stage.LOGIN_SUCCESS_WRITE, true, t);
 
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        String accessToken = jwtService.generateToken(user.getEmail(), user.getRoles());
+        String refreshToken = refreshTokenService.issue(user.getEmail());
+        authMetrics.record(Stage.LOGIN_TOKEN_MINT, true, t);
 
         return new AuthResponse(accessToken, refreshToken, "Login Successful");
     }
 
     /**
-     * Generates a new access token from the provided refresh token.
+     * Exchanges a refresh token for a new access token and a new refresh token. The presented
+     * refresh token is consumed; presenting it again revokes every token descended from the same login.
+     * The access token carries the user's current roles, so role changes apply from the next refresh.
      *
      * @param refreshTokenRequest the request containing a valid refresh token
-     * @return response containing new access token and original refresh token
-     * @throws InvalidRefreshTokenException if the token is invalid
+     * @return response containing the new access token and the refresh token replacing the presented one
+     * @throws InvalidRefreshTokenException if the token is invalid, expired, revoked or already used,
+     *         or its user no longer exists
      */
     public AuthResponse refresh(RefreshTokenRequest refreshTokenRequest) {
-        String refreshToken = refreshTokenRequest.getRefreshToken();
-        String newAccessToken = jwtService.generateTokenFromRefreshToken(refreshToken);
+        long t = System.nanoTime();
+        var rotated = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+        t = authMetrics.record(Stage.REFRESH_ROTATE, true, t);
+
+        var user = userRepository.findCredentialsByEmail(rotated.subject()).orElse(null);
+        t = authMetrics.record(Stage.REFRESH_USER_LOOKUP, user != null, t);
+        if (user == null) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
 
-        return new AuthResponse(newAccessToken, refreshToken, "Token refreshed successfully");
+        String newAccessToken = jwtService.generateToken(user.getEmail(), user.getRoles());
+        authMetrics.record(Stage.REFRESH_TOKEN_MINT, true, t);
+
+        return new AuthResponse(newAccessToken, rotated.refreshToken(), "Token refreshed successfully");
+    }
+
+    /**
+     * Revokes the given access token and, if present, the refresh token family it was issued with.
+     * Other instances stop accepting the access token after their next revocation sync.
+     *
+     * @param request the request containing the access token and optional refresh token
+     * @return response message confirming the logout
+     * @throws InvalidTokenException if the access token is invalid, expired or already revoked
+     * @throws InvalidRefreshTokenException if the refresh token is invalid or belongs to another user
+     */
+    public AuthResponse logout(LogoutRequest request) {
+        var claims = jwtService.parseOnce(request.getAccessToken());
+        long clockSkewMillis = jwtProperties.getClockSkew().toMillis();
+        if (claims.getTokenId() != null) {
+            tokenDenyList.revokeToken(claims.getTokenId(), claims.getSubject(),
+                    new Date(claims.getExpiration().getTime() + clockSkewMillis));
+        } else {
+            tokenDenyList.revokeSubject(claims.getSubject(), new Date(clock.millis()),
+                    jwtProperties.getAccessTokenTtl().toMillis() + clockSkewMillis);
+        }
+        jwtService.evict(request.getAccessToken());
+        if (request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken(), claims.getSubject());
+        }
+        return new AuthResponse(null, null, "Logged out successfully");
+    }
+
+    /**
+     * Revokes every access token issued so far to the owner of the given access token, together
+     * with all of their refresh tokens, ending every session of the user.
+     *
+     * @param request the request containing an access token of the user
+     * @return response message confirming the logout
+     * @throws InvalidTokenException if the access token is invalid, expired or already revoked
+     */
+    public AuthResponse logoutAll(LogoutRequest request) {
+        var claims = jwtService.parseOnce(request.getAccessToken());
+        tokenDenyList.revokeSubject(claims.getSubject(), new Date(clock.millis()),
+                jwtProperties.getAccessTokenTtl().plus(jwtProperties.getClockSkew()).toMillis());
+        jwtService.evict(request.getAccessToken());
+        refreshTokenService.revokeAll(claims.getSubject());
+        return new AuthResponse(null, null, "Logged out of all sessions");
     }
 
     /**
      * Validates the structure and expiration of a given JWT token.
      *
      * @param token the JWT token to validate
-     * @throws InvalidTokenException if the token is malformed, expired, or invalid
+     * @return the claims of a valid token, or the reason it is malformed, expired, or invalid
+     */
+    public TokenValidationResult validateToken(String token){
+        return jwtService.validateToken(token);
+    }
+
+    /**
+     * Validates a batch of JWT tokens, reporting validity, subject, roles and expiry for each.
+     *
+     * @param request the request containing the tokens to validate
+     * @return one result per token, in request order
+     * @throws BatchTooLargeException if the batch exceeds the configured maximum size
      */
-    public void validateToken(String token){
-        jwtService.validateToken(token);
+    public BatchTokenValidationResponse validateTokens(BatchTokenValidationRequest request) {
+        return new BatchTokenValidationResponse(jwtService.validateTokens(request.getTokens()));
     }
 
 
     /**
-     * Increments failed login attempts and locks account if threshold is exceeded.
+     * Counts a failed attempt in the in-memory limiter, which persists the resulting lock
+     * asynchronously. With the limiter disabled, the database counter is incremented instead.
      *
      * @param user the user whose login attempt failed
+     * @param clientIp the remote address of the caller
      */
-    private void incrementFailedAttempts(User user) {
-        user.setFailedAttempts(user.getFailedAttempts() + 1);
-        if (user.getFailedAttempts() >= loginSecurityProps.getMaxFailedAttempts()) {
-            user.setLocked(true);
-            user.setLockTime(new Date());
+    private void recordFailedAttempt(UserCredentials user, String clientIp) {
+        if (loginAttemptLimiter.isEnabled()) {
+            loginAttemptLimiter.recordFailure(user.getEmail(), clientIp);
+        } else {
+            incrementFailedAttempts(user);
         }
-        userRepository.save(user);
+    }
+
+    /**
+     * Increments failed login attempts and locks account if threshold is exceeded.
+     * The counter is incremented in the database, so concurrent failures are never lost.
+     *
+     * @param user the user whose login attempt failed
+     */
+    private void incrementFailedAttempts(UserCredentials user) {
+        userRepository.incrementFailedAttempts(
+                user.getId(), loginSecurityProps.getMaxFailedAttempts(), new Date(clock.millis()));
     }
 
     /**
      * Resets the failed login attempt count and unlocks the user account.
+     * Skips the write when there is nothing to reset, which is the common case.
      *
      * @param user the user to reset
      */
-    private void resetFailedAttempts(User user) {
-        user.setFailedAttempts(0);
-        user.setLocked(false);
-        user.setLockTime(null);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+    private void resetFailedAttempts(UserCredentials user) {
+        if (user.getFailedAttempts() == 0 && !user.isLocked()) {
+            return;
+        }
+        userRepository.resetFailedAttempts(user.getId(), LocalDateTime.now(clock));
+    }
+
+    /**
+     * Rehashes the user's password with the current encoder settings if the stored hash uses an
+     * outdated algorithm or cost. Skipped when the hashing pool is saturated; the next login retries.
+     *
+     * @param user the user who just authenticated
+     * @param rawPassword the password the user authenticated with
+     */
+    private void upgradePasswordHash(UserCredentials user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            userRepository.updatePassword(user.getId(), passwordHashingService.encode(rawPassword), LocalDateTime.now(clock));
+        } catch (ServiceBusyException e) {
+            // keep the current hash; it still verifies
+        }
     }
 
     /**
@@ -142,22 +284,20 @@ public class AuthService {
      * @param user the user to check
      * @return true if lock has expired, false otherwise
      */
-    private boolean isLockExpired(User user) {
+    private boolean isLockExpired(UserCredentials user) {
         long lockDurationMillis = (long) loginSecurityProps.getLockDurationMinutes() * 60 * 1000;
-        return new Date().getTime() - user.getLockTime().getTime() >= lockDurationMillis;
+        return clock.millis() - user.getLockTime().getTime() >= lockDurationMillis;
     }
 
     /**
      * Unlocks a user account and resets failure counters.
      *
      * @param user the user to unlock
+     * @return the user's credentials with the lock cleared
      */
-    private void unlock(User user) {
-        user.setLocked(false);
-        user.setLockTime(null);
-        user.setFailedAttempts(0);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+    private UserCredentials unlock(UserCredentials user) {
+        userRepository.unlock(user.getId(), user.getLockTime(), LocalDateTime.now(clock));
+        return user.unlocked();
     }
 
 }
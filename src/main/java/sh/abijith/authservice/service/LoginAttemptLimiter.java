@@ -0,0 +1,366 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sh.abijith.authservice.config.LoginLimiterProperties;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.exception.AccountLockedException;
+import sh.abijith.authservice.exception.TooManyAttemptsException;
+import sh.abijith.authservice.repository.UserRepository;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory brute-force guard consulted before the user lookup and password check.
+ * Failed attempts are counted per email and per client IP in a sliding window of
+ * {@code auth.login.limiter.window-seconds}. An email that reaches
+ * {@code auth.login.max-failed-attempts} is locked in memory straight away. Emails are matched
+ * case-insensitively in memory. If the email belongs to an existing user, the lock is written
+ * to MongoDB under that user's stored email on the next flush, so that it survives restarts and
+ * is seen by other instances. Emails with no account are locked in memory only, so probing
+ * unknown emails costs no writes.
+ *
+ * <p>Failures below the threshold are counted per instance only. Behind N instances, an email
+ * can therefore take up to N times {@code max-failed-attempts} failures per window before one of
+ * them locks it. Once an instance locks it, the lock is written to MongoDB, and the other
+ * instances apply it at their next login for that email. With the limiter disabled, every
+ * failure is counted in MongoDB instead. That gives an exact count across instances, at the
+ * cost of one write per failure.
+ *
+ * <p>When a lock expires, the email's window is cleared, so the failures that caused the lock
+ * do not count again. The next lock needs the full threshold once more.
+ *
+ * <p>Keys are spread over independent shards. Counters are updated with CAS on packed
+ * bucket words, so recording an attempt never blocks. Idle keys are evicted periodically.
+ * A shard that reaches {@code max-keys-per-shard} evicts its least recently seen unlocked keys
+ * eagerly. Email and IP keys are treated alike, so spraying new emails cannot push out the
+ * window that throttles the spraying IP.
+ */
+@Slf4j
+@Service
+public class LoginAttemptLimiter {
+    private static final int BUCKETS = 10;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final LoginLimiterProperties limiterProps;
+    private final LoginSecurityProperties loginSecurityProps;
+    private final UserRepository userRepository;
+    private final Clock clock;
+
+    private final Shard[] shards;
+    private final long bucketMillis;
+    private final Map<String, Date> pendingLocks = new ConcurrentHashMap<>();
+
+    private final Counter lockedRejections;
+    private final Counter throttledRejections;
+    private final Counter evictions;
+
+    public LoginAttemptLimiter(LoginLimiterProperties limiterProps,
+                               LoginSecurityProperties loginSecurityProps,
+                               UserRepository userRepository,
+                               Clock clock,
+                               MeterRegistry meterRegistry) {
+        this.limiterProps = limiterProps;
+        this.loginSecurityProps = loginSecurityProps;
+        this.userRepository = userRepository;
+        this.clock = clock;
+        this.bucketMillis = Math.max(1, limiterProps.getWindowSeconds() * 1000L / BUCKETS);
+
+        this.shards = new Shard[Integer.highestOneBit(Math.max(1, limiterProps.getShards()))];
+        for (int i = 0; i < shards.length; i++) {
+            Shard shard = new Shard();
+            shards[i] = shard;
+            String tag = String.valueOf(i);
+            Gauge.builder("auth.limiter.keys", shard.windows, Map::size)
+                    .description("Tracked emails and client IPs in the shard")
+                    .tag("shard", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("auth.limiter.cas.retries", shard.casRetries, LongAdder::sum)
+                    .description("Counter updates that lost a CAS race and retried")
+                    .tag("shard", tag)
+                    .register(meterRegistry);
+        }
+
+        this.lockedRejections = Counter.builder("auth.limiter.rejected")
+                .tag("reason", "locked")
+                .register(meterRegistry);
+        this.throttledRejections = Counter.builder("auth.limiter.rejected")
+                .tag("reason", "ip_throttled")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("auth.limiter.evictions")
+                .description("Keys dropped because they went idle or their shard was full")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return limiterProps.isEnabled();
+    }
+
+    /**
+     * Rejects the attempt if the email is locked or the client IP has exceeded its failure budget.
+     *
+     * @param email the email being logged in to
+     * @param clientIp the remote address of the caller, may be null
+     * @throws AccountLockedException if the email is locked
+     * @throws TooManyAttemptsException if the client IP is throttled
+     */
+    public void checkAllowed(String email, String clientIp) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = clock.millis();
+
+        AttemptWindow emailWindow = find(emailKey(email), now);
+        if (emailWindow != null && emailWindow.lockedUntil > now) {
+            lockedRejections.increment();
+            throw new AccountLockedException("Account is temporarily locked. Try again later.");
+        }
+
+        if (clientIp != null) {
+            AttemptWindow ipWindow = find(ipKey(clientIp), now);
+            if (ipWindow != null && ipWindow.count(now / bucketMillis) >= limiterProps.getMaxAttemptsPerIp()) {
+                throttledRejections.increment();
+                throw new TooManyAttemptsException("Too many failed login attempts. Try again later.",
+                        (int) Math.max(1, bucketMillis / 1000));
+            }
+        }
+    }
+
+    /**
+     * Counts a failed attempt against an existing user and the client IP, locking the email once
+     * it reaches the configured threshold. The lock is queued for MongoDB under the given email.
+     * Does nothing while the limiter is disabled.
+     *
+     * @param email the stored email of the user that failed to authenticate
+     * @param clientIp the remote address of the caller, may be null
+     */
+    public void recordFailure(String email, String clientIp) {
+        recordFailure(email, clientIp, true);
+    }
+
+    /**
+     * Counts a failed attempt for an email that has no account. The email is locked in memory
+     * at the threshold like any other, but nothing is queued for MongoDB.
+     *
+     * @param email the email as presented
+     * @param clientIp the remote address of the caller, may be null
+     */
+    public void recordUnknownEmail(String email, String clientIp) {
+        recordFailure(email, clientIp, false);
+    }
+
+    private void recordFailure(String email, String clientIp, boolean persistLock) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = clock.millis();
+        long bucket = now / bucketMillis;
+
+        String key = emailKey(email);
+        AttemptWindow emailWindow = getOrCreate(key, now);
+        int failures = emailWindow.increment(bucket, shardFor(key).casRetries);
+        if (failures >= loginSecurityProps.getMaxFailedAttempts() && emailWindow.lockedUntil <= now) {
+            emailWindow.lockedUntil = now + lockDurationMillis();
+            if (persistLock) {
+                pendingLocks.put(email, new Date(now));
+            }
+        }
+
+        if (clientIp != null) {
+            String ip = ipKey(clientIp);
+            getOrCreate(ip, now).increment(bucket, shardFor(ip).casRetries);
+        }
+    }
+
+    /**
+     * Forgets the failure history of an email after it authenticates successfully.
+     *
+     * @param email the email that authenticated
+     */
+    public void recordSuccess(String email) {
+        String key = emailKey(email);
+        shardFor(key).windows.remove(key);
+    }
+
+    /**
+     * Mirrors a lock read from the database, so further attempts are rejected without a lookup.
+     *
+     * @param email the locked email
+     * @param lockTime when the lock was placed
+     */
+    public void lock(String email, Date lockTime) {
+        if (!isEnabled() || lockTime == null) {
+            return;
+        }
+        long now = clock.millis();
+        getOrCreate(emailKey(email), now).lockedUntil = lockTime.getTime() + lockDurationMillis();
+    }
+
+    /**
+     * Writes locks placed on existing users since the last flush to MongoDB, by their stored
+     * email. Failed writes stay queued for the next run.
+     */
+    @Scheduled(fixedDelayString = "${auth.login.limiter.flush-interval-millis:5000}")
+    public void flushLocks() {
+        pendingLocks.forEach((email, lockTime) -> {
+            try {
+                userRepository.lockByEmail(email, lockTime);
+                pendingLocks.remove(email, lockTime);
+            } catch (RuntimeException e) {
+                log.warn("Could not persist lock for {}; will retry", email, e);
+            }
+        });
+    }
+
+    /**
+     * Drops keys that have seen no attempts for a full window and hold no active lock.
+     */
+    @Scheduled(fixedDelayString = "${auth.login.limiter.sweep-interval-millis:60000}")
+    public void evictIdle() {
+        long now = clock.millis();
+        for (Shard shard : shards) {
+            evictIdle(shard, now);
+        }
+    }
+
+    private void evictIdle(Shard shard, long now) {
+        long idleBefore = now - limiterProps.getWindowSeconds() * 1000L;
+        shard.windows.values().removeIf(window -> evict(window.lockedUntil <= now && window.lastSeen < idleBefore));
+    }
+
+    private boolean evict(boolean evict) {
+        if (evict) {
+            evictions.increment();
+        }
+        return evict;
+    }
+
+    /**
+     * Returns the window of a key. A window whose lock has expired is dropped instead, so the
+     * failures that caused the lock are forgotten with it.
+     */
+    private AttemptWindow find(String key, long now) {
+        Shard shard = shardFor(key);
+        AttemptWindow window = shard.windows.get(key);
+        if (window != null && window.lockedUntil != 0 && window.lockedUntil <= now) {
+            shard.windows.remove(key, window);
+            return null;
+        }
+        return window;
+    }
+
+    private AttemptWindow getOrCreate(String key, long now) {
+        Shard shard = shardFor(key);
+        AttemptWindow window = find(key, now);
+        if (window == null) {
+            if (shard.windows.size() >= limiterProps.getMaxKeysPerShard()) {
+                evictIdle(shard, now);
+                if (shard.windows.size() >= limiterProps.getMaxKeysPerShard()) {
+                    evictLeastRecentlySeen(shard, now);
+                }
+            }
+            window = shard.windows.computeIfAbsent(key, k -> new AttemptWindow());
+        }
+        window.lastSeen = now;
+        return window;
+    }
+
+    /**
+     * Makes room in a full shard by dropping the eighth of its unlocked keys that were seen
+     * least recently. Locked keys are kept.
+     */
+    private void evictLeastRecentlySeen(Shard shard, long now) {
+        record Candidate(String key, AttemptWindow window, long lastSeen) {
+        }
+        List<Candidate> candidates = new ArrayList<>(shard.windows.size());
+        shard.windows.forEach((key, window) -> {
+            if (window.lockedUntil <= now) {
+                candidates.add(new Candidate(key, window, window.lastSeen));
+            }
+        });
+        candidates.sort(Comparator.comparingLong(Candidate::lastSeen));
+
+        int target = Math.max(1, limiterProps.getMaxKeysPerShard() / 8);
+        for (Candidate candidate : candidates.subList(0, Math.min(target, candidates.size()))) {
+            evict(shard.windows.remove(candidate.key(), candidate.window()));
+        }
+    }
+
+    private Shard shardFor(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+
+    private long lockDurationMillis() {
+        return loginSecurityProps.getLockDurationMinutes() * 60_000L;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    private static final class Shard {
+        private final ConcurrentHashMap<String, AttemptWindow> windows = new ConcurrentHashMap<>();
+        private final LongAdder casRetries = new LongAdder();
+    }
+
+    /**
+     * Ring of per-bucket counters. Each slot packs the bucket number in its high bits and the
+     * count in its low {@value #COUNT_BITS} bits, so a stale slot is reset and incremented in one CAS.
+     */
+    private static final class AttemptWindow {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private volatile long lockedUntil;
+        private volatile long lastSeen;
+
+        int increment(long bucket, LongAdder casRetries) {
+            int index = (int) (bucket % BUCKETS);
+            while (true) {
+                long current = buckets.get(index);
+                long next;
+                if (current >>> COUNT_BITS != bucket) {
+                    next = (bucket << COUNT_BITS) | 1;
+                } else if ((current & COUNT_MASK) == COUNT_MASK) {
+                    break;
+                } else {
+                    next = current + 1;
+                }
+                if (buckets.compareAndSet(index, current, next)) {
+                    break;
+                }
+                casRetries.increment();
+            }
+            return count(bucket);
+        }
+
+        int count(long bucket) {
+            int total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long slot = buckets.get(i);
+                if (bucket - (slot >>> COUNT_BITS) < BUCKETS) {
+                    total += (int) (slot & COUNT_MASK);
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import sh.abijith.authservice.config.PasswordHashingProperties;
+import sh.abijith.authservice.exception.ServiceBusyException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs password hashing on a dedicated, bounded pool so that a burst of logins cannot occupy
+ * every request thread. When the pool and its queue are full, callers are rejected immediately
+ * with a {@link ServiceBusyException} instead of waiting. The {@code *Async} variants hand back
+ * a future instead of waiting for the worker, for callers that must not block.
+ *
+ * <p>Each task runs as a {@link FutureTask} on the pool. Cancelling it, directly when a waiting
+ * caller is interrupted or through the future of an {@code *Async} variant, interrupts the worker
+ * and frees its queue slot if the task has not started yet.
+ */
+@Service
+public class PasswordHashingService {
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingProperties hashingProps;
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  PasswordHashingProperties hashingProps,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.hashingProps = hashingProps;
+        this.executor = new ThreadPoolExecutor(
+                hashingProps.getPoolSize(),
+                hashingProps.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingProps.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks currently running")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.hashing.wait")
+                .description("Time a hashing task spent queued before a worker picked it up")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.hashing.duration")
+                .description("Time spent computing a password hash")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Hashing tasks rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a raw password on the hashing pool.
+     *
+     * @param rawPassword the password to hash
+     * @return the encoded password
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Verifies a raw password against an encoded one on the hashing pool.
+     *
+     * @param rawPassword the password supplied by the user
+     * @param encodedPassword the stored hash
+     * @return true if the password matches
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hashes a raw password on the hashing pool without waiting for the result.
+     *
+     * @param rawPassword the password to hash
+     * @return a future completed with the encoded password
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Verifies a raw password against an encoded one on the hashing pool without waiting for the result.
+     *
+     * @param rawPassword the password supplied by the user
+     * @param encodedPassword the stored hash
+     * @return a future completed with true if the password matches
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Checks whether an encoded password was produced with an outdated algorithm or cost.
+     * This only inspects the hash and runs on the calling thread.
+     *
+     * @param encodedPassword the stored hash
+     * @return true if the password should be rehashed with the current settings
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        return start(task).result;
+    }
+
+    private <T> HashingTask<T> start(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        var hashing = new HashingTask<>(() -> {
+            waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            return hashTimer.recordCallable(task);
+        });
+        try {
+            executor.execute(hashing);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many concurrent credential checks. Try again later.",
+                    hashingProps.getRetryAfterSeconds());
+        }
+        return hashing;
+    }
+
+    private <T> T execute(Callable<T> task) {
+        HashingTask<T> future = start(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * A hashing task on the pool that also completes {@link #result} for the {@code *Async}
+     * variants. Cancelling either one cancels the task.
+     */
+    private final class HashingTask<T> extends FutureTask<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        HashingTask(Callable<T> callable) {
+            super(callable);
+            result.whenComplete((value, e) -> {
+                if (result.isCancelled()) {
+                    cancel(true);
+                }
+            });
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                executor.remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        protected void done() {
+            switch (state()) {
+                case SUCCESS -> result.complete(resultNow());
+                case FAILED -> result.completeExceptionally(exceptionNow());
+                default -> result.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package sh.abijith.authservice.service;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import sh.abijith.authservice.client.ReactiveUserClient;
+import sh.abijith.authservice.client.UserClient;
+import sh.abijith.authservice.config.ProfileOutboxProperties;
+import sh.abijith.authservice.config.UserServiceClientProperties;
+import sh.abijith.authservice.model.ProfileOutboxEntry;
+import sh.abijith.authservice.repository.UserRepository;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.AuthMetrics.Stage;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Delivers queued profile creations to user-service in the background. The entries are embedded
+ * in the users they belong to; each poll claims due entries in batches until none are left.
+ * Delivered entries are removed from their user. Failed deliveries are
+ * retried with exponential backoff until {@code services.user.outbox.max-attempts} is reached,
+ * after which the entry is kept as {@code FAILED} for inspection. A 409 from user-service means
+ * the profile already exists and counts as delivered.
+ *
+ * <p>While the user-service circuit breaker is open, polls are skipped before anything is
+ * claimed, so an outage of user-service costs no writes. Deliveries turned away anyway, by a
+ * breaker that opens mid-batch, a half-open breaker out of trial calls, or a full bulkhead, are
+ * deferred by {@code services.user.outbox.initial-backoff-millis} and keep their attempt, so an
+ * outage cannot exhaust them.
+ *
+ * <p>On the reactive stack, each batch is sent concurrently through {@link ReactiveUserClient}
+ * instead of one Feign call at a time, at most {@code services.user.client.max-concurrent-calls}
+ * at once; outcomes are applied once the whole batch has answered. Both clients share the breaker
+ * and bulkhead, so the same skipping and deferral apply on either stack.
+ */
+@Slf4j
+@Service
+public class ProfileOutboxDispatcher {
+    private final UserRepository userRepository;
+    private final UserClient userClient;
+    private final ProfileOutboxProperties outboxProps;
+    private final UserServiceClientProperties clientProps;
+    private final AuthMetrics authMetrics;
+    private final ReactiveUserClient reactiveUserClient;
+    private final CircuitBreaker userServiceCircuitBreaker;
+    private final Clock clock;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter deferred;
+    private final Counter skipped;
+
+    public ProfileOutboxDispatcher(UserRepository userRepository,
+                                   UserClient userClient,
+                                   ProfileOutboxProperties outboxProps,
+                                   UserServiceClientProperties clientProps,
+                                   AuthMetrics authMetrics,
+                                   ObjectProvider<ReactiveUserClient> reactiveUserClient,
+                                   CircuitBreaker userServiceCircuitBreaker,
+                                   Clock clock,
+                                   MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userClient = userClient;
+        this.outboxProps = outboxProps;
+        this.clientProps = clientProps;
+        this.authMetrics = authMetrics;
+        this.reactiveUserClient = reactiveUserClient.getIfAvailable();
+        this.userServiceCircuitBreaker = userServiceCircuitBreaker;
+        this.clock = clock;
+        this.delivered = Counter.builder("auth.outbox.delivered")
+                .description("Profile creations acknowledged by user-service")
+                .register(meterRegistry);
+        this.retried = Counter.builder("auth.outbox.retried")
+                .description("Profile creations rescheduled after a failed delivery")
+                .register(meterRegistry);
+        this.failed = Counter.builder("auth.outbox.failed")
+                .description("Profile creations that exhausted their attempts")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("auth.outbox.deferred")
+                .description("Profile creations put back unsent because the user-service client was short-circuited")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("auth.outbox.polls.skipped")
+                .description("Outbox polls skipped because the user-service circuit breaker was open")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${services.user.outbox.poll-interval-millis:1000}")
+    public void dispatch() {
+        List<ProfileOutboxEntry> batch;
+        do {
+            if (userServiceCircuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                skipped.increment();
+                return;
+            }
+            long now = clock.millis();
+            batch = userRepository.claimProfileOutbox(
+                    outboxProps.getBatchSize(),
+                    new Date(now),
+                    new Date(now + outboxProps.getLeaseSeconds() * 1000L));
+            if (reactiveUserClient != null) {
+                deliverConcurrently(batch);
+            } else {
+                batch.forEach(this::deliver);
+            }
+        } while (batch.size() == outboxProps.getBatchSize());
+    }
+
+    private void deliver(ProfileOutboxEntry entry) {
+        long start = System.nanoTime();
+        try {
+            userClient.createUserProfile(entry.getProfile());
+        } catch (FeignException.Conflict e) {
+            // the profile already exists, typically from an earlier attempt whose response was lost
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            authMetrics.record(Stage.REGISTER_PROFILE_DELIVERY, false, start);
+            defer(entry);
+            return;
+        } catch (RuntimeException e) {
+            authMetrics.record(Stage.REGISTER_PROFILE_DELIVERY, false, start);
+            retryLater(entry, e);
+            return;
+        }
+        authMetrics.record(Stage.REGISTER_PROFILE_DELIVERY, true, start);
+        markDelivered(entry);
+    }
+
+    /**
+     * Sends every entry of the batch at once. Each call is bounded by the lease, so the batch is
+     * settled before another instance could claim its entries.
+     */
+    private void deliverConcurrently(List<ProfileOutboxEntry> batch) {
+        Duration timeout = Duration.ofSeconds(outboxProps.getLeaseSeconds());
+        List<Delivery> deliveries = Flux.fromIterable(batch)
+                .flatMap(entry -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return reactiveUserClient.createUserProfile(entry.getProfile())
+                            .timeout(timeout)
+                            .then(Mono.fromSupplier(() -> {
+                                authMetrics.record(Stage.REGISTER_PROFILE_DELIVERY, true, start);
+                                return new Delivery(entry, null);
+                            }))
+                            .onErrorResume(e -> {
+                                authMetrics.record(Stage.REGISTER_PROFILE_DELIVERY, false, start);
+                                return Mono.just(new Delivery(entry, e));
+                            });
+                }), clientProps.getMaxConcurrentCalls())
+                .collectList()
+                .block();
+
+        for (Delivery delivery : deliveries) {
+            if (delivery.error() == null) {
+                markDelivered(delivery.entry());
+            } else if (delivery.error() instanceof CallNotPermittedException
+                    || delivery.error() instanceof BulkheadFullException) {
+                defer(delivery.entry());
+            } else {
+                retryLater(delivery.entry(), delivery.error());
+            }
+        }
+    }
+
+    private void markDelivered(ProfileOutboxEntry entry) {
+        userRepository.clearProfileOutbox(entry.userId());
+        delivered.increment();
+    }
+
+    private void defer(ProfileOutboxEntry entry) {
+        userRepository.deferProfileOutbox(entry.userId(), new Date(clock.millis() + outboxProps.getInitialBackoffMillis()));
+        deferred.increment();
+    }
+
+    private void retryLater(ProfileOutboxEntry entry, Throwable e) {
+        boolean exhausted = entry.getAttempts() >= outboxProps.getMaxAttempts();
+        long backoff = Math.min(
+                outboxProps.getMaxBackoffMillis(),
+                outboxProps.getInitialBackoffMillis() << Math.min(entry.getAttempts() - 1, 30));
+        userRepository.rescheduleProfileOutbox(
+                entry.userId(),
+                new Date(clock.millis() + backoff),
+                exhausted,
+                e.getClass().getSimpleName() + ": " + e.getMessage());
+
+        if (exhausted) {
+            failed.increment();
+            log.error("Giving up on profile creation for user {} after {} attempts", entry.userId(), entry.getAttempts(), e);
+        } else {
+            retried.increment();
+            log.warn("Profile creation for user {} failed on attempt {}; retrying in {} ms",
+                    entry.userId(), entry.getAttempts(), backoff);
+        }
+    }
+
+    private record Delivery(ProfileOutboxEntry entry, Throwable error) {
+    }
+}
@@ -0,0 +1,263 @@
+package sh.abijith.authservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.dto.*;
+import sh.abijith.authservice.exception.*;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.model.ProfileOutboxEntry;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserCredentials;
+import sh.abijith.authservice.repository.ReactiveUserRepository;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.AuthMetrics.Stage;
+import sh.abijith.authservice.util.JwtService;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.Callable;
+
+/**
+ * The {@link AuthService} contract on the reactive stack. Register and login read and write
+ * users through {@link ReactiveUserRepository} and hash passwords on the bounded
+ * {@link PasswordHashingService} pool without blocking the event loop; the lockout rules are the
+ * same as on the servlet stack. Refresh and logout go through the refresh-token and revocation
+ * stores, which are blocking, so they are delegated to {@link AuthService} on the bounded elastic
+ * scheduler.
+ *
+ * <p>Register and login record the same {@link AuthMetrics} stages as {@link AuthService}, timed
+ * per subscription; refresh records its stages inside {@link AuthService#refresh}.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthService {
+    private final ReactiveUserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final JwtService jwtService;
+    private final LoginSecurityProperties loginSecurityProps;
+    private final UserMapper userMapper;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthService authService;
+    private final Clock clock;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Registers a new user and queues creation of the corresponding user profile.
+     *
+     * @param request the registration request containing email, password, and user profile info
+     * @return response message confirming registration
+     * @see AuthService#register(RegisterRequest)
+     */
+    public Mono<AuthResponse> register(RegisterRequest request) {
+        return Mono.defer(() -> {
+            var stages = new Stages();
+            return Mono.fromFuture(() -> passwordHashingService.encodeAsync(request.getPassword()))
+                    .map(encodedPassword -> newUser(request, encodedPassword))
+                    .doOnNext(user -> stages.record(Stage.REGISTER_PASSWORD_HASH, true))
+                    .flatMap(user -> userRepository.insert(user)
+                            .onErrorMap(DuplicateKeyException.class, e -> {
+                                stages.record(Stage.REGISTER_SAVE, false);
+                                return new UserAlreadyExistsException("User with this email already exists");
+                            }))
+                    .doOnNext(saved -> stages.record(Stage.REGISTER_SAVE, true))
+                    .thenReturn(new AuthResponse(null, null, "Registration is Successful. Please Login Again"));
+        });
+    }
+
+    /**
+     * Authenticates the user and generates JWT tokens upon successful login.
+     *
+     * @param request the login request containing email and password
+     * @param clientIp the remote address of the caller, used for per-IP throttling
+     * @return the response containing access token, refresh token, and success message
+     * @see AuthService#login(LoginRequest, String)
+     */
+    public Mono<AuthResponse> login(LoginRequest request, String clientIp) {
+        return Mono.defer(() -> {
+            var stages = new Stages();
+            return Mono.fromRunnable(() -> loginAttemptLimiter.checkAllowed(request.getEmail(), clientIp))
+                    .doOnSuccess(allowed -> stages.record(Stage.LOGIN_LIMITER_CHECK, true))
+                    .doOnError(e -> stages.record(Stage.LOGIN_LIMITER_CHECK, false))
+                    .then(userRepository.findCredentialsByEmail(request.getEmail()))
+                    .doOnSuccess(user -> stages.record(Stage.LOGIN_USER_LOOKUP, user != null))
+                    .switchIfEmpty(Mono.defer(() -> {
+                        loginAttemptLimiter.recordUnknownEmail(request.getEmail(), clientIp);
+                        return Mono.error(new UserNotFoundException("User not found"));
+                    }))
+                    .flatMap(user -> checkLock(user, stages))
+                    .flatMap(user -> Mono.fromFuture(() -> passwordHashingService.matchesAsync(request.getPassword(), user.getPassword()))
+                            .flatMap(matches -> {
+                                stages.record(Stage.LOGIN_PASSWORD_VERIFY, matches);
+                                return matches
+                                        ? completeLogin(user, request.getPassword(), stages)
+                                        : recordFailedAttempt(user, clientIp)
+                                                .doOnSuccess(done -> stages.record(Stage.LOGIN_LOCKOUT_WRITE, true))
+                                                .then(Mono.error(new InvalidCredentialsException("Invalid email or password")));
+                            }));
+        });
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     *
+     * @param request the request containing a valid refresh token
+     * @return response containing the new access token and refresh token
+     * @see AuthService#refresh(RefreshTokenRequest)
+     */
+    public Mono<AuthResponse> refresh(RefreshTokenRequest request) {
+        return blocking(() -> authService.refresh(request));
+    }
+
+    /**
+     * Revokes the given access token and, if present, the refresh token family it was issued with.
+     *
+     * @param request the request containing the access token and optional refresh token
+     * @return response message confirming the logout
+     * @see AuthService#logout(LogoutRequest)
+     */
+    public Mono<AuthResponse> logout(LogoutRequest request) {
+        return blocking(() -> authService.logout(request));
+    }
+
+    /**
+     * Revokes every access and refresh token of the owner of the given access token.
+     *
+     * @param request the request containing an access token of the user
+     * @return response message confirming the logout
+     * @see AuthService#logoutAll(LogoutRequest)
+     */
+    public Mono<AuthResponse> logoutAll(LogoutRequest request) {
+        return blocking(() -> authService.logoutAll(request));
+    }
+
+    /**
+     * Validates the structure and expiration of a given JWT token. Verification is CPU-only and
+     * usually answered from the claims cache, so it runs on the calling thread, unless a remote
+     * shared cache is configured, in which case it moves to the bounded elastic scheduler.
+     *
+     * @param token the JWT token to validate
+     * @return the claims of a valid token, or the reason it is invalid
+     */
+    public Mono<TokenValidationResult> validateToken(String token) {
+        if (jwtService.isSharedCacheRemote()) {
+            return blocking(() -> jwtService.validateToken(token));
+        }
+        return Mono.fromCallable(() -> jwtService.validateToken(token));
+    }
+
+    /**
+     * Validates a batch of JWT tokens on the parallel scheduler, keeping large batches off the event
+     * loop. With a remote shared cache the batch runs on the bounded elastic scheduler instead.
+     *
+     * @param request the request containing the tokens to validate
+     * @return one result per token, in request order
+     */
+    public Mono<BatchTokenValidationResponse> validateTokens(BatchTokenValidationRequest request) {
+        return Mono.fromCallable(() -> authService.validateTokens(request))
+                .subscribeOn(jwtService.isSharedCacheRemote() ? Schedulers.boundedElastic() : Schedulers.parallel());
+    }
+
+    /**
+     * Clears an expired lock or rejects the attempt while the account is locked.
+     */
+    private Mono<UserCredentials> checkLock(UserCredentials user, Stages stages) {
+        if (!user.isLocked()) {
+            return Mono.just(user);
+        }
+        if (isLockExpired(user)) {
+            return unlock(user).doOnSuccess(unlocked -> stages.record(Stage.LOGIN_LOCK_CHECK, true));
+        }
+        loginAttemptLimiter.lock(user.getEmail(), user.getLockTime());
+        stages.record(Stage.LOGIN_LOCK_CHECK, false);
+        return Mono.error(new AccountLockedException("Account is temporarily locked. Try again later."));
+    }
+
+    private boolean isLockExpired(UserCredentials user) {
+        long lockDurationMillis = (long) loginSecurityProps.getLockDurationMinutes() * 60 * 1000;
+        return clock.millis() - user.getLockTime().getTime() >= lockDurationMillis;
+    }
+
+    private Mono<UserCredentials> unlock(UserCredentials user) {
+        return userRepository.unlock(user.getId(), user.getLockTime(), LocalDateTime.now(clock))
+                .thenReturn(user.unlocked());
+    }
+
+    private Mono<Void> recordFailedAttempt(UserCredentials user, String clientIp) {
+        if (loginAttemptLimiter.isEnabled()) {
+            return Mono.fromRunnable(() -> loginAttemptLimiter.recordFailure(user.getEmail(), clientIp));
+        }
+        return userRepository.incrementFailedAttempts(
+                        user.getId(), loginSecurityProps.getMaxFailedAttempts(), new Date(clock.millis()))
+                .then();
+    }
+
+    private Mono<AuthResponse> completeLogin(UserCredentials user, String rawPassword, Stages stages) {
+        loginAttemptLimiter.recordSuccess(user.getEmail());
+        return upgradePasswordHash(user, rawPassword)
+                .then(resetFailedAttempts(user))
+                .doOnSuccess(done -> stages.record(Stage.LOGIN_SUCCESS_WRITE, true))
+                .then(blocking(() -> refreshTokenService.issue(user.getEmail())))
+                .map(refreshToken -> {
+                    String accessToken = jwtService.generateToken(user.getEmail(), user.getRoles());
+                    stages.record(Stage.LOGIN_TOKEN_MINT, true);
+                    return new AuthResponse(accessToken, refreshToken, "Login Successful");
+                });
+    }
+
+    private Mono<Void> resetFailedAttempts(UserCredentials user) {
+        if (user.getFailedAttempts() == 0 && !user.isLocked()) {
+            return Mono.empty();
+        }
+        return userRepository.resetFailedAttempts(user.getId(), LocalDateTime.now(clock));
+    }
+
+    /**
+     * Rehashes an outdated password hash. Skipped when the hashing pool is saturated; the next login retries.
+     */
+    private Mono<Void> upgradePasswordHash(UserCredentials user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return Mono.empty();
+        }
+        return Mono.fromFuture(() -> passwordHashingService.encodeAsync(rawPassword))
+                .flatMap(encodedPassword -> userRepository.updatePassword(user.getId(), encodedPassword, LocalDateTime.now(clock)))
+                .onErrorResume(ServiceBusyException.class, e -> Mono.empty());
+    }
+
+    private User newUser(RegisterRequest request, String encodedPassword) {
+        var user = new User();
+        user.setId(new ObjectId().toHexString());
+        user.setEmail(request.getEmail());
+        user.setPassword(encodedPassword);
+        user.setRoles(request.getRoles());
+        LocalDateTime now = LocalDateTime.now(clock);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        user.setProfileOutbox(ProfileOutboxEntry.of(userMapper.toUserProfileRequest(user, request), clock));
+        return user;
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Chains {@link AuthMetrics} stage timings through one subscription of a reactive operation.
+     * The steps of a chain run one after another, so the timestamp needs no synchronisation.
+     */
+    private final class Stages {
+        private long t = System.nanoTime();
+
+        void record(Stage stage, boolean success) {
+            t = authMetrics.record(stage, success, t);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.RefreshTokenProperties;
+import sh.abijith.authservice.exception.InvalidRefreshTokenException;
+import sh.abijith.authservice.model.RefreshToken;
+import sh.abijith.authservice.model.RevokedRefreshFamily;
+import sh.abijith.authservice.repository.RefreshTokenRepository;
+import sh.abijith.authservice.repository.RevokedRefreshFamilyRepository;
+import sh.abijith.authservice.util.JwtService;
+import sh.abijith.authservice.util.RefreshTokenClaims;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and rotates refresh tokens. A login starts a new family; every refresh consumes the
+ * presented token and issues its child. Presenting a consumed token again means it was copied,
+ * so the whole family is revoked and both holders have to log in again.
+ *
+ * <p>The set of revoked families is mirrored in memory and synced from MongoDB every
+ * {@code auth.refresh.revocation-sync-millis}, so tokens of a revoked family are rejected without
+ * a lookup. For all other tokens, revocation needs no separate query: revoking a family also
+ * consumes its unused tokens, so the conditional update that consumes the presented token fails.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedRefreshFamilyRepository revokedFamilyRepository;
+    private final JwtService jwtService;
+    private final RefreshTokenProperties refreshProps;
+    private final JwtProperties jwtProperties;
+    private final Clock clock;
+
+    private final Map<String, Long> revokedFamilies = new ConcurrentHashMap<>();
+    private volatile long syncedUpTo;
+
+    private final Counter rotated;
+    private final Counter reuseDetected;
+    private final Counter revokedRejections;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               RevokedRefreshFamilyRepository revokedFamilyRepository,
+                               JwtService jwtService,
+                               RefreshTokenProperties refreshProps,
+                               JwtProperties jwtProperties,
+                               MeterRegistry meterRegistry,
+                               Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedFamilyRepository = revokedFamilyRepository;
+        this.jwtService = jwtService;
+        this.refreshProps = refreshProps;
+        this.jwtProperties = jwtProperties;
+        this.clock = clock;
+        this.rotated = Counter.builder("auth.refresh.rotated")
+                .description("Refresh tokens exchanged for a new one")
+                .register(meterRegistry);
+        this.reuseDetected = Counter.builder("auth.refresh.reuse.detected")
+                .description("Refresh tokens presented again after use; their family is revoked")
+                .register(meterRegistry);
+        this.revokedRejections = Counter.builder("auth.refresh.revoked.rejected")
+                .description("Refresh tokens rejected from the in-memory revoked family set")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.revoked.families", revokedFamilies, Map::size)
+                .description("Revoked refresh-token families held in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        syncRevocations();
+    }
+
+    /**
+     * Starts a new token family for a user who just authenticated.
+     *
+     * @param email the subject of the token
+     * @return a signed refresh token
+     */
+    public String issue(String email) {
+        return store(email, UUID.randomUUID().toString(), null, new Date(clock.millis()));
+    }
+
+    /**
+     * Consumes a refresh token and issues its successor in the same family.
+     *
+     * @param refreshToken the refresh token presented by the client
+     * @return the subject of the token and the refresh token replacing it
+     * @throws InvalidRefreshTokenException if the token is invalid, expired, revoked or already used
+     */
+    public RotatedRefreshToken rotate(String refreshToken) {
+        RefreshTokenClaims claims = jwtService.parseRefreshToken(refreshToken);
+        if (revokedFamilies.containsKey(claims.getFamilyId())) {
+            revokedRejections.increment();
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+
+        Date now = new Date(clock.millis());
+        if (!refreshTokenRepository.markUsed(claims.getTokenId(), now)) {
+            if (!refreshTokenRepository.existsById(claims.getTokenId())) {
+                throw new InvalidRefreshTokenException("Invalid refresh token");
+            }
+            reuseDetected.increment();
+            log.warn("Refresh token reuse detected for {}; revoking family {}", claims.getSubject(), claims.getFamilyId());
+            revokeFamily(claims.getFamilyId(), claims.getSubject());
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+
+        rotated.increment();
+        String successor = store(claims.getSubject(), claims.getFamilyId(), claims.getTokenId(), now);
+        return new RotatedRefreshToken(claims.getSubject(), successor);
+    }
+
+    /**
+     * Revokes the family of a refresh token, as part of logging out.
+     *
+     * @param refreshToken the refresh token presented by the client
+     * @param subject the user logging out, who must own the token
+     * @throws InvalidRefreshTokenException if the token is invalid or belongs to another user
+     */
+    public void revoke(String refreshToken, String subject) {
+        RefreshTokenClaims claims = jwtService.parseRefreshToken(refreshToken);
+        if (!claims.getSubject().equals(subject)) {
+            throw new InvalidRefreshTokenException("Refresh token belongs to another user");
+        }
+        revokeFamily(claims.getFamilyId(), subject);
+    }
+
+    /**
+     * Revokes every refresh-token family of a user that still has a usable token.
+     *
+     * @param subject the user whose refresh tokens are revoked
+     */
+    public void revokeAll(String subject) {
+        refreshTokenRepository.findBySubjectAndUsedAtIsNull(subject).stream()
+                .map(RefreshToken::getFamilyId)
+                .distinct()
+                .forEach(familyId -> revokeFamily(familyId, subject));
+    }
+
+    /**
+     * Revokes every token of a family, on this instance immediately and on the others after
+     * their next sync.
+     *
+     * @param familyId the family to revoke
+     * @param subject the user the family belongs to
+     */
+    public void revokeFamily(String familyId, String subject) {
+        Date now = new Date(clock.millis());
+        Date expiresAt = new Date(now.getTime()
+                + jwtProperties.getRefreshTokenTtl().plus(jwtProperties.getClockSkew()).toMillis());
+        revokedFamilyRepository.save(new RevokedRefreshFamily(familyId, subject, now, expiresAt));
+        refreshTokenRepository.revokeFamily(familyId, now);
+        revokedFamilies.put(familyId, expiresAt.getTime());
+    }
+
+    /**
+     * Pulls families revoked since the last sync, overlapping by
+     * {@code auth.refresh.sync-overlap-seconds} to tolerate clock skew between instances,
+     * and forgets families whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh.revocation-sync-millis:5000}")
+    public void syncRevocations() {
+        long now = clock.millis();
+        try {
+            List<RevokedRefreshFamily> revoked = syncedUpTo == 0
+                    ? revokedFamilyRepository.findAll()
+                    : revokedFamilyRepository.findByRevokedAtGreaterThanEqual(
+                            new Date(syncedUpTo - refreshProps.getSyncOverlapSeconds() * 1000L));
+            revoked.forEach(family -> revokedFamilies.put(family.getId(), family.getExpiresAt().getTime()));
+            syncedUpTo = now;
+        } catch (RuntimeException e) {
+            log.warn("Could not sync revoked refresh-token families; will retry", e);
+        }
+        revokedFamilies.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private String store(String email, String familyId, String parentId, Date now) {
+        String tokenId = UUID.randomUUID().toString();
+        Date expiresAt = new Date(now.getTime() + jwtProperties.getRefreshTokenTtl().toMillis());
+        refreshTokenRepository.insert(new RefreshToken(tokenId, familyId, parentId, email, now, null, expiresAt));
+        return jwtService.generateRefreshToken(email, tokenId, familyId, expiresAt);
+    }
+
+    /**
+     * The outcome of a rotation: whose token it was and the token that replaces it.
+     */
+    public record RotatedRefreshToken(String subject, String refreshToken) {
+    }
+}
@@ -0,0 +1,64 @@
+package sh.abijith.authservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import sh.abijith.authservice.config.UserExportProperties;
+import sh.abijith.authservice.model.UserSummary;
+import sh.abijith.authservice.repository.UserRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Writes users as NDJSON straight from a MongoDB cursor, one line per user in {@code _id} order,
+ * so an export of any size holds at most one cursor batch ({@code auth.export.cursor-batch-size})
+ * in memory. The id on the last line is the cursor for the next page.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+    private final UserRepository userRepository;
+    private final UserExportProperties exportProps;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Opens the cursor for a page of users. This runs before the response is committed, so an
+     * invalid cursor is still answered with an error status.
+     *
+     * @param afterId the id of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users, or 0 for all remaining users
+     * @return the users of the page; must be passed to {@link #write} or closed
+     * @throws sh.abijith.authservice.exception.InvalidCursorException if {@code afterId} is not a user id
+     */
+    public Stream<UserSummary> open(String afterId, int limit) {
+        return userRepository.streamSummaries(afterId, limit, exportProps.getCursorBatchSize());
+    }
+
+    /**
+     * Writes the users as NDJSON and closes the cursor.
+     *
+     * @param users the users opened with {@link #open}
+     * @param out the response body
+     * @throws IOException if the client goes away
+     */
+    public void write(Stream<UserSummary> users, OutputStream out) throws IOException {
+        var buffered = new BufferedOutputStream(out);
+        try (users) {
+            users.forEach(user -> {
+                try {
+                    buffered.write(objectMapper.writeValueAsBytes(user));
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+}
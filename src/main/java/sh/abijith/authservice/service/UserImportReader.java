@@ -0,0 +1,187 @@
+package sh.abijith.authservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import sh.abijith.authservice.dto.UserImportRecord;
+import sh.abijith.authservice.exception.InvalidImportException;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.service.UserImportService.Format;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads import records one line at a time, so the body is never held in memory as a whole.
+ *
+ * <p>NDJSON lines are {@link UserImportRecord} objects. CSV input starts with a header naming
+ * the columns ({@code email}, {@code password}, {@code passwordHash}, {@code firstName},
+ * {@code lastName}, {@code roles}) in any order; fields may be quoted with {@code "}, roles are
+ * separated by {@code |}. Quoted fields cannot span lines. Blank lines are skipped.
+ */
+final class UserImportReader implements Closeable {
+    private static final List<String> CSV_COLUMNS =
+            List.of("email", "password", "passwordHash", "firstName", "lastName", "roles");
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+
+    private Map<String, Integer> columns;
+    private long lineNumber;
+
+    UserImportReader(InputStream body, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record or the reason it could not be parsed, or null at the end of the input
+     * @throws InvalidImportException if the CSV header is missing a required column
+     * @throws IOException if the body cannot be read
+     */
+    Line next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            if (lineNumber++ == 0 && text.startsWith("\uFEFF")) {
+                text = text.substring(1);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = header(text);
+                continue;
+            }
+            try {
+                return new Line(lineNumber, format == Format.CSV ? fromCsv(text) : fromJson(text), null);
+            } catch (IllegalArgumentException e) {
+                return new Line(lineNumber, null, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private UserImportRecord fromJson(String text) {
+        try {
+            return objectMapper.readValue(text, UserImportRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private UserImportRecord fromCsv(String text) {
+        List<String> fields = split(text);
+        return new UserImportRecord(
+                field(fields, "email"),
+                field(fields, "password"),
+                field(fields, "passwordHash"),
+                field(fields, "firstName"),
+                field(fields, "lastName"),
+                roles(field(fields, "roles")));
+    }
+
+    private Map<String, Integer> header(String text) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> names;
+        try {
+            names = split(text);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportException("Malformed CSV header: " + e.getMessage());
+        }
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            for (String column : CSV_COLUMNS) {
+                if (column.equalsIgnoreCase(name)) {
+                    header.put(column, i);
+                }
+            }
+        }
+        if (!header.containsKey("email")) {
+            throw new InvalidImportException("The CSV header must name an email column");
+        }
+        return header;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Set<Role> roles(String value) {
+        if (value == null) {
+            return null;
+        }
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (String name : value.split("\\|")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            try {
+                roles.add(Role.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown role: " + name.trim());
+            }
+        }
+        return roles;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * A parsed line: the record, or the reason it was rejected.
+     */
+    record Line(long number, UserImportRecord record, String error) {
+    }
+}
@@ -0,0 +1,332 @@
+package sh.abijith.authservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import sh.abijith.authservice.config.UserImportProperties;
+import sh.abijith.authservice.dto.UserImportError;
+import sh.abijith.authservice.dto.UserImportRecord;
+import sh.abijith.authservice.dto.UserImportResponse;
+import sh.abijith.authservice.exception.InvalidImportException;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.model.ProfileOutboxEntry;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.service.UserImportReader.Line;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.AuthMetrics.Stage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users in bulk from a streamed NDJSON or CSV body. Records are read and processed in
+ * batches of {@code auth.import.batch-size}, so memory use does not grow with the input:
+ * passwords of a batch are hashed in parallel on a dedicated fork-join pool, then its users are
+ * written with one unordered bulk insert, each carrying its queued profile creation.
+ * Profiles are delivered by {@link ProfileOutboxDispatcher}, exactly as for single registrations.
+ *
+ * <p>Duplicates, both against existing users and within the input, are detected by the unique
+ * index on {@code email} rather than by a lookup per record. Every rejected record is reported
+ * with its line number, so a failed import can be fixed and replayed: users that were imported
+ * the first time are then reported as duplicates.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final Pattern SUPPORTED_HASH = Pattern.compile("^(\\{(bcrypt|argon2|pbkdf2)}|\\$2[aby]?\\$).+");
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final UserImportProperties importProps;
+    private final UserMapper userMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AuthMetrics authMetrics;
+    private final Clock clock;
+    private final ForkJoinPool hashingPool;
+    private final Counter imported;
+    private final Counter rejected;
+
+    public UserImportService(MongoTemplate mongoTemplate,
+                             PasswordEncoder passwordEncoder,
+                             UserImportProperties importProps,
+                             UserMapper userMapper,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             AuthMetrics authMetrics,
+                             Clock clock,
+                             MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.importProps = importProps;
+        this.userMapper = userMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.authMetrics = authMetrics;
+        this.clock = clock;
+        this.hashingPool = new ForkJoinPool(Math.max(1, importProps.getHashingParallelism()));
+        this.imported = Counter.builder("auth.import.records")
+                .description("Records of bulk imports, by outcome")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.import.records")
+                .description("Records of bulk imports, by outcome")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Imports every record of the body.
+     *
+     * @param body the NDJSON or CSV input, read to the end but not closed by the caller
+     * @param format the format of the body
+     * @return counts of imported and rejected records, with the first rejections
+     * @throws InvalidImportException if the CSV header is malformed or lacks an email column
+     */
+    public UserImportResponse importUsers(InputStream body, Format format) {
+        long started = System.nanoTime();
+        var report = new Report(importProps.getMaxReportedErrors());
+        int batchSize = Math.max(1, importProps.getBatchSize());
+
+        try (var reader = new UserImportReader(body, format, objectMapper)) {
+            List<Line> batch = new ArrayList<>(batchSize);
+            Line line;
+            while ((line = reader.next()) != null) {
+                batch.add(line);
+                if (batch.size() == batchSize) {
+                    importBatch(batch, report);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import body", e);
+        }
+
+        log.info("Imported {} of {} users ({} rejected)", report.imported, report.received, report.failed);
+        return report.toResponse(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void importBatch(List<Line> lines, Report report) {
+        long importedBefore = report.imported;
+        long failedBefore = report.failed;
+        List<Candidate> candidates = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            report.received++;
+            String error = line.error() != null ? line.error() : validate(line.record());
+            if (error != null) {
+                report.reject(line.number(), line.record() == null ? null : line.record().getEmail(), error);
+            } else {
+                candidates.add(new Candidate(line));
+            }
+        }
+
+        long t = System.nanoTime();
+        hashingPool.submit(() -> candidates.parallelStream().forEach(this::prepare)).join();
+        t = authMetrics.record(Stage.IMPORT_PASSWORD_HASH, true, t);
+
+        List<Candidate> ready = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            if (candidate.error != null) {
+                report.reject(candidate, candidate.error);
+            } else {
+                ready.add(candidate);
+            }
+        }
+
+        Map<Integer, String> insertErrors = bulkInsert(User.class,
+                ready.stream().map(candidate -> candidate.user).toList(),
+                "User with this email already exists");
+        authMetrics.record(Stage.IMPORT_SAVE, insertErrors.isEmpty(), t);
+
+        for (int i = 0; i < ready.size(); i++) {
+            String error = insertErrors.get(i);
+            if (error != null) {
+                report.reject(ready.get(i), error);
+            } else {
+                report.imported++;
+            }
+        }
+
+        imported.increment(report.imported - importedBefore);
+        rejected.increment(report.failed - failedBefore);
+    }
+
+    /**
+     * Checks a record before any hashing work is spent on it.
+     *
+     * @return the reason the record is rejected, or null if it is valid
+     */
+    private String validate(UserImportRecord record) {
+        var violation = validator.validate(record).stream()
+                .min(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(UserImportService::describe)
+                .orElse(null);
+        if (violation != null) {
+            return violation;
+        }
+        boolean hasPassword = record.getPassword() != null && !record.getPassword().isBlank();
+        boolean hasHash = record.getPasswordHash() != null && !record.getPasswordHash().isBlank();
+        if (hasPassword == hasHash) {
+            return "Exactly one of password and passwordHash must be given";
+        }
+        if (hasHash && !SUPPORTED_HASH.matcher(record.getPasswordHash()).matches()) {
+            return "Unsupported password hash";
+        }
+        return null;
+    }
+
+    /**
+     * Builds the user document of a candidate, with its queued profile creation, hashing its
+     * password unless it came pre-hashed. Runs on the hashing pool.
+     */
+    private void prepare(Candidate candidate) {
+        UserImportRecord record = candidate.line.record();
+        try {
+            var user = new User();
+            user.setId(new ObjectId().toHexString());
+            user.setEmail(record.getEmail());
+            user.setPassword(record.getPasswordHash() != null
+                    ? record.getPasswordHash()
+                    : passwordEncoder.encode(record.getPassword()));
+            user.setRoles(record.getRoles());
+            LocalDateTime now = LocalDateTime.now(clock);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            user.setProfileOutbox(ProfileOutboxEntry.of(userMapper.toUserProfileRequest(user, record), clock));
+            candidate.user = user;
+        } catch (RuntimeException e) {
+            candidate.error = "Could not hash the password: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Inserts the documents in one unordered bulk write, so one failing document does not stop the others.
+     *
+     * @return the error of each document that was not inserted, by its index in {@code documents}
+     */
+    private Map<Integer, String> bulkInsert(Class<?> type, List<?> documents, String duplicateMessage) {
+        if (documents.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, type).insert(documents).execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getCode() == DUPLICATE_KEY ? duplicateMessage : error.getMessage());
+            }
+            return errors;
+        }
+    }
+
+    private static String describe(ConstraintViolation<UserImportRecord> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * The accepted input formats.
+     */
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        public static final String CSV_MEDIA_TYPE = "text/csv";
+
+        /**
+         * Picks the format from a content type, falling back to the file name extension.
+         *
+         * @param contentType the declared content type, may be null
+         * @param filename the name of the uploaded file, may be null
+         * @return the format of the input
+         * @throws InvalidImportException if neither names a supported format
+         */
+        public static Format of(MediaType contentType, String filename) {
+            if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                return NDJSON;
+            }
+            if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+                return CSV;
+            }
+            String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            throw new InvalidImportException("Imports must be application/x-ndjson or text/csv");
+        }
+    }
+
+    private static final class Candidate {
+        private final Line line;
+        private User user;
+        private String error;
+
+        private Candidate(Line line) {
+            this.line = line;
+        }
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<UserImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(Candidate candidate, String error) {
+            reject(candidate.line.number(), candidate.line.record().getEmail(), error);
+        }
+
+        private void reject(long line, String email, String error) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportError(line, email, error));
+            }
+        }
+
+        private UserImportResponse toResponse(long durationMillis) {
+            return new UserImportResponse(received, imported, failed, durationMillis,
+                    errors, failed > errors.size());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.repository.UserRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clears expired account locks in bulk every {@code auth.login.unlock-sweep-interval-millis}.
+ * Login still unlocks an expired account it comes across, so the sweep only keeps the stored
+ * state accurate for accounts that are not tried again; it is idempotent and safe to run on
+ * every instance.
+ */
+@Slf4j
+@Service
+public class UserLockSweeper {
+    private final UserRepository userRepository;
+    private final LoginSecurityProperties loginSecurityProps;
+    private final Clock clock;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Counter unlocked;
+
+    public UserLockSweeper(UserRepository userRepository,
+                           LoginSecurityProperties loginSecurityProps,
+                           Clock clock,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.loginSecurityProps = loginSecurityProps;
+        this.clock = clock;
+        this.succeeded = sweepTimer(meterRegistry, "success");
+        this.failed = sweepTimer(meterRegistry, "failure");
+        this.unlocked = Counter.builder("auth.lock.sweep.unlocked")
+                .description("Accounts unlocked by the sweep because their lock expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login.unlock-sweep-interval-millis:60000}")
+    public void unlockExpired() {
+        long start = System.nanoTime();
+        Date lockedBefore = new Date(clock.millis() - loginSecurityProps.getLockDurationMinutes() * 60_000L);
+        try {
+            long count = userRepository.unlockExpired(lockedBefore, LocalDateTime.now(clock));
+            succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            unlocked.increment(count);
+            if (count > 0) {
+                log.info("Unlocked {} accounts whose lock expired", count);
+            }
+        } catch (RuntimeException e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Lock sweep failed; will retry", e);
+        }
+    }
+
+    private static Timer sweepTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.lock.sweep")
+                .description("Time spent clearing expired account locks")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package sh.abijith.authservice.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the stages of each auth operation, published as {@code auth.stage} with
+ * {@code operation}, {@code stage} and {@code outcome} tags and percentile histograms. All
+ * timers are registered up front, so recording a stage is a clock read and an array lookup.
+ * End-to-end latency per endpoint, including the exception type, is covered by
+ * {@code http.server.requests}.
+ *
+ * <p>Callers chain the returned timestamp into the next stage:
+ * <pre>
+ * long t = System.nanoTime();
+ * var user = lookup();
+ * t = authMetrics.record(Stage.LOGIN_USER_LOOKUP, user != null, t);
+ * </pre>
+ */
+@Component
+public class AuthMetrics {
+    private final Timer[] succeeded;
+    private final Timer[] failed;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        Stage[] stages = Stage.values();
+        this.succeeded = new Timer[stages.length];
+        this.failed = new Timer[stages.length];
+        for (Stage stage : stages) {
+            succeeded[stage.ordinal()] = timer(meterRegistry, stage, "success");
+            failed[stage.ordinal()] = timer(meterRegistry, stage, "failure");
+        }
+    }
+
+    /**
+     * Records a stage that started at {@code startNanos} and ends now.
+     *
+     * @param stage the stage that completed
+     * @param success whether the stage had the outcome that lets the operation proceed
+     * @param startNanos the {@link System#nanoTime()} at which the stage started
+     * @return the current {@link System#nanoTime()}, to use as the start of the next stage
+     */
+    public long record(Stage stage, boolean success, long startNanos) {
+        long now = System.nanoTime();
+        (success ? succeeded : failed)[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, Stage stage, String outcome) {
+        return Timer.builder("auth.stage")
+                .description("Time spent in one stage of an auth operation")
+                .tag("operation", stage.operation)
+                .tag("stage", stage.stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public enum Stage {
+        LOGIN_LIMITER_CHECK("login", "limiter_check"),
+        LOGIN_USER_LOOKUP("login", "user_lookup"),
+        LOGIN_LOCK_CHECK("login", "lock_check"),
+        LOGIN_PASSWORD_VERIFY("login", "password_verify"),
+        LOGIN_LOCKOUT_WRITE("login", "lockout_write"),
+        LOGIN_SUCCESS_WRITE("login", "success_write"),
+        LOGIN_TOKEN_MINT("login", "token_mint"),
+        REGISTER_PASSWORD_HASH("register", "password_hash"),
+        REGISTER_SAVE("register", "save"),
+        REGISTER_PROFILE_DELIVERY("register", "profile_delivery"),
+        IMPORT_PASSWORD_HASH("import", "password_hash"),
+        IMPORT_SAVE("import", "save"),
+        REFRESH_ROTATE("refresh", "rotate"),
+        REFRESH_USER_LOOKUP("refresh", "user_lookup"),
+        REFRESH_TOKEN_MINT("refresh", "token_mint"),
+        VALIDATE_SIGNATURE_VERIFY("validate", "signature_verify"),
+        VALIDATE_BATCH("validate", "batch");
+
+        private final String operation;
+        private final String stage;
+
+        Stage(String operation, String stage) {
+            this.operation = operation;
+            this.stage = stage;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package sh.abijith.authservice.util;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * The default backend: nothing is shared and every instance verifies tokens on its own.
+ */
+@Component
+@ConditionalOnProperty(prefix = "jwt.shared-cache", name = "backend", havingValue = "none", matchIfMissing = true)
+public class DisabledIntrospectionCache implements SharedIntrospectionCache {
+
+    @Override
+    public TokenClaims get(String digest) {
+        return null;
+    }
+
+    @Override
+    public void put(String digest, TokenClaims claims, long ttlMillis) {
+    }
+
+    @Override
+    public void invalidate(String digest) {
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+package sh.abijith.authservice.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sh.abijith.authservice.config.SharedIntrospectionCacheProperties;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Reference backend that keeps the shared tier in this process. It is shared by every
+ * {@link JwtService} in the JVM, which makes it the behavioural model for remote backends and
+ * lets several replicas be simulated in one process. Holds at most
+ * {@code jwt.shared-cache.max-entries} entries.
+ */
+@Component
+@ConditionalOnProperty(prefix = "jwt.shared-cache", name = "backend", havingValue = "in-process")
+public class InProcessIntrospectionCache implements SharedIntrospectionCache {
+    private final Cache<String, Entry> entries;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final Clock clock;
+
+    public InProcessIntrospectionCache(SharedIntrospectionCacheProperties props, Clock clock) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(props.getMaxEntries())
+                .build();
+        this.clock = clock;
+    }
+
+    @Override
+    public TokenClaims get(String digest) {
+        Entry entry = entries.getIfPresent(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            entries.asMap().remove(digest, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    @Override
+    public void put(String digest, TokenClaims claims, long ttlMillis) {
+        entries.put(digest, new Entry(claims, clock.millis() + ttlMillis));
+    }
+
+    @Override
+    public void invalidate(String digest) {
+        entries.invalidate(digest);
+        listeners.forEach(listener -> listener.accept(digest));
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    private record Entry(TokenClaims claims, long expiresAt) {
+    }
+}
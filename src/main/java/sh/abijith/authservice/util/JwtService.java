@@ -1,36 +1,116 @@
 package sh.abijith.authservice.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import sh.abijith.authservice.config.JwtCacheProperties;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.TokenValidationProperties;
+import sh.abijith.authservice.dto.TokenValidationResult;
+import sh.abijith.authservice.exception.BatchTooLargeException;
 import sh.abijith.authservice.exception.InvalidRefreshTokenException;
 import sh.abijith.authservice.exception.InvalidTokenException;
 import sh.abijith.authservice.model.Role;
 import sh.abijith.authservice.model.User;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
+    private static final String ROLES_CLAIM = "roles";
+    private static final String FAMILY_CLAIM = "fid";
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtProperties jwtProperties;
+    private final JwtCacheProperties cacheProperties;
+    private final TokenValidationProperties validationProperties;
+    private final SigningKeyRing signingKeyRing;
+    private final TokenDenyList tokenDenyList;
+    private final SharedIntrospectionCache sharedCache;
+    private final AuthMetrics authMetrics;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
 
-    private SecretKey secretKey;
+    private JwtParser jwtParser;
+
+    private TokenMinter tokenMinter;
+
+    private Cache<String, TokenClaims> claimsCache;
+
+    private Cache<String, String> rejectionCache;
+
+    private ForkJoinPool validationPool;
+
+    private Counter sharedHits;
+
+    private Counter sharedMisses;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
 
     @PostConstruct
     public void init() {
-        secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        tokenMinter = new TokenMinter(signingKeyRing);
+        validationPool = new ForkJoinPool(Math.max(1, validationProperties.getParallelism()));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(signingKeyRing.resolver())
+                .setClock(() -> new Date(clock.millis()))
+                .setAllowedClockSkewSeconds(jwtProperties.getClockSkew().toSeconds())
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaxEntries())
+                .expireAfter(new TokenExpiry(
+                        TimeUnit.SECONDS.toNanos(cacheProperties.getMaxTtlSeconds()),
+                        jwtProperties.getClockSkew().toMillis(),
+                        clock))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+        rejectionCache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getNegativeMaxEntries())
+                .expireAfterWrite(cacheProperties.getNegativeTtlSeconds(), TimeUnit.SECONDS)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rejectionCache, "jwt.rejections");
+
+        sharedHits = Counter.builder("jwt.shared.cache.requests")
+                .description("Claims cache misses looked up in the shared introspection cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        sharedMisses = Counter.builder("jwt.shared.cache.requests")
+                .description("Claims cache misses looked up in the shared introspection cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        sharedCache.onInvalidation(claimsCache::invalidate);
     }
 
     /**
@@ -40,85 +120,143 @@ public class JwtService {
      * @return a signed JWT access token
      */
     public String generateToken(User user) {
-        String roles = user.getRoles().stream()
-                .map(Role::name)
-                .collect(Collectors.joining(","));
-
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("role", roles)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 1 day
-                .signWith(secretKey, SignatureAlgorithm.HS256)
-                .compact();
+        return generateToken(user.getEmail(), user.getRoles());
     }
 
+    /**
+     * Generates a JWT access token for the given subject and roles.
+     *
+     * @param email the subject of the token
+     * @param roles the roles to carry in the token, as a {@link RoleMask} in the {@code roles} claim
+     * @return a signed JWT access token
+     */
+    public String generateToken(String email, Set<Role> roles) {
+        long now = clock.millis();
+        return tokenMinter.accessToken(UUID.randomUUID().toString(), email, RoleMask.encode(roles),
+                tokenDenyList.issueTimeFor(email, now), now + jwtProperties.getAccessTokenTtl().toMillis());
+    }
 
     /**
-     * Generates a long-lived refresh token for the given user.
+     * Generates a refresh token. Refresh tokens carry their {@code jti} and token family, which
+     * {@code RefreshTokenService} tracks to rotate them and detect reuse.
      *
-     * @param user the user for whom the refresh token is generated
+     * @param email the subject of the token
+     * @param tokenId the unique id of the token
+     * @param familyId the family the token belongs to
+     * @param expiresAt when the token expires
      * @return a signed JWT refresh token
      */
-    public String generateRefreshToken(User user) {
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 2592000000L)) // 30 days
-                .signWith(secretKey, SignatureAlgorithm.HS256)
-                .compact();
+    public String generateRefreshToken(String email, String tokenId, String familyId, Date expiresAt) {
+        return tokenMinter.refreshToken(tokenId, email, familyId, clock.millis(), expiresAt.getTime());
     }
 
     /**
-     * Generates a new access token by verifying and decoding the given refresh token.
+     * Verifies a refresh token and returns its claims. Access tokens and refresh tokens issued
+     * without a token family are rejected.
      *
-     * @param refreshToken the refresh token to validate and extract user info from
-     * @return a new access token
+     * @param refreshToken the refresh token to verify
+     * @return the verified claims of the refresh token
      * @throws InvalidRefreshTokenException if the token is invalid or expired
      */
-    public String generateTokenFromRefreshToken(String refreshToken) {
+    public RefreshTokenClaims parseRefreshToken(String refreshToken) {
+        Claims claims;
         try {
-            var claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(refreshToken)
-                    .getBody();
-
-            String email = claims.getSubject();
-
-            return Jwts.builder()
-                    .setSubject(email)
-                    .setIssuedAt(new Date())
-                    .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 1 day
-                    .signWith(secretKey, SignatureAlgorithm.HS256)
-                    .compact();
-        } catch (Exception e) {
+            claims = jwtParser.parseClaimsJws(refreshToken).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        String familyId = claims.get(FAMILY_CLAIM, String.class);
+        if (claims.getId() == null || familyId == null) {
             throw new InvalidRefreshTokenException("Invalid refresh token");
         }
+        return new RefreshTokenClaims(claims.getSubject(), claims.getId(), familyId, claims.getExpiration());
     }
 
     /**
-     * Validates the structure and expiration of a given JWT token.
+     * Verifies the given token and returns its subject, roles and expiry in one pass.
+     * Verified claims are cached by token digest until the token expires (capped at
+     * {@code jwt.cache.max-ttl-seconds}), so repeated presentations of the same token
+     * skip the signature check. On a miss the {@link SharedIntrospectionCache} is asked before
+     * verifying, and claims verified here are offered to it, so other instances skip the check
+     * too. Tokens that fail verification are cached locally only, for
+     * {@code jwt.cache.negative-ttl-seconds}, in a separate cache of at most
+     * {@code jwt.cache.negative-max-entries}, so a flood of bad tokens cannot evict valid ones.
+     * Revocation is checked on every call, after the cache.
+     *
+     * @param token the JWT token to verify
+     * @return the verified claims of the token
+     * @throws InvalidTokenException if the token is malformed, expired, revoked, or has an invalid signature
+     */
+    public TokenClaims parseOnce(String token) {
+        Verification verification = check(token);
+        if (verification.error() != null) {
+            throw new InvalidTokenException(verification.error());
+        }
+        return verification.claims();
+    }
+
+    /**
+     * Validates the structure, signature, expiration and revocation of a given JWT access token.
+     * Refresh tokens, recognised by their token family claim, are rejected.
+     * Rejections are reported in the result rather than thrown, so a flood of bad tokens costs
+     * no exception construction on this side; tokens that are not even shaped like a JWT are
+     * turned away before they reach the parser.
      *
      * @param token the JWT token to validate
-     * @throws InvalidTokenException if the token is malformed, expired, or has an invalid signature
+     * @return the claims of a valid token, or the reason it is invalid
      */
-    public void validateToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            if (claims.getExpiration().before(new java.util.Date())) {
-                throw new InvalidTokenException("Token is expired");
-            }
-        } catch (SignatureException | io.jsonwebtoken.ExpiredJwtException | io.jsonwebtoken.MalformedJwtException e) {
-            throw new InvalidTokenException("Invalid token: " + e.getMessage());
+    public TokenValidationResult validateToken(String token) {
+        Verification verification = check(token);
+        return verification.error() == null
+                ? TokenValidationResult.valid(verification.claims())
+                : TokenValidationResult.invalid(verification.error());
+    }
+
+    /**
+     * Verifies many tokens at once. Batches of at least {@code jwt.validation.parallel-threshold}
+     * tokens are verified in parallel on a dedicated pool of {@code jwt.validation.parallelism}
+     * threads, so large batches neither compete with other users of the common pool nor take more
+     * cores than configured. Results are returned in request order.
+     *
+     * @param tokens the tokens to verify
+     * @return one result per token, in the same order
+     * @throws BatchTooLargeException if more than {@code jwt.validation.max-batch-size} tokens are given
+     */
+    public List<TokenValidationResult> validateTokens(List<String> tokens) {
+        if (tokens.size() > validationProperties.getMaxBatchSize()) {
+            throw new BatchTooLargeException("At most " + validationProperties.getMaxBatchSize()
+                    + " tokens can be validated per request");
         }
+        long start = System.nanoTime();
+        List<TokenValidationResult> results = tokens.size() >= validationProperties.getParallelThreshold()
+                ? validationPool.submit(() -> tokens.parallelStream().map(this::validateToken).toList()).join()
+                : tokens.stream().map(this::validateToken).toList();
+        authMetrics.record(AuthMetrics.Stage.VALIDATE_BATCH, true, start);
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdown();
+    }
+
+    /**
+     * Drops a revoked token from the claims cache of every instance and from the shared cache.
+     *
+     * @param token the revoked token
+     */
+    public void evict(String token) {
+        String digest = digest(token);
+        claimsCache.invalidate(digest);
+        sharedCache.invalidate(digest);
     }
 
+    /**
+     * @return true if a cache miss may wait on a remote shared cache, so it should not run on an event loop
+     */
+    public boolean isSharedCacheRemote() {
+        return sharedCache.isRemote();
+    }
 
     /**
      * Extracts the email (username) from a valid JWT token.
@@ -127,26 +265,151 @@ public class JwtService {
      * @return the subject (email) from the token
      */
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseOnce(token).getSubject();
     }
 
+    /**
+     * Extracts the roles from a valid JWT token.
+     *
+     * @param token the JWT token
+     * @return the roles carried by the token
+     */
     public Set<Role> extractRoles(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseOnce(token).getRoles();
+    }
+
+    private Verification check(String token) {
+        if (token == null || token.isBlank()) {
+            return new Verification(null, "Token is missing");
+        }
+        int periods = countPeriods(token);
+        if (periods != 2) {
+            return new Verification(null,
+                    "Invalid token: JWT strings must contain exactly 2 period characters. Found: " + periods);
+        }
+        String digest = digest(token);
+        TokenClaims claims = claimsCache.getIfPresent(digest);
+        if (claims == null) {
+            String rejection = rejectionCache.getIfPresent(digest);
+            if (rejection != null) {
+                return new Verification(null, rejection);
+            }
+            Verification verification = lookup(digest, token);
+            if (verification.error() != null) {
+                rejectionCache.put(digest, verification.error());
+                return verification;
+            }
+            claims = verification.claims();
+            claimsCache.put(digest, claims);
+        }
+        if (tokenDenyList.isRevoked(claims)) {
+            return new Verification(null, "Token has been revoked");
+        }
+        return new Verification(claims, null);
+    }
 
-        String rolesString = claims.get("roles", String.class);
+    /**
+     * Loads a claims cache miss from the shared cache, verifying and publishing the token there
+     * only if no other instance has. Shared claims are re-checked for expiry against this clock,
+     * and revoked tokens are not published again after their invalidation. Runs outside the claims
+     * cache, so a slow shared cache never holds a cache lock; concurrent misses on one token may
+     * each verify it.
+     */
+    private Verification lookup(String digest, String token) {
+        TokenClaims shared = sharedCache.get(digest);
+        if (shared != null && remainingMillis(shared) > 0) {
+            sharedHits.increment();
+            return new Verification(shared, null);
+        }
+        sharedMisses.increment();
 
-        return Arrays.stream(rolesString.split(","))
-                .map(roleName -> Role.valueOf(roleName))
-                .collect(Collectors.toSet());
+        Verification verification = parseAndVerify(token);
+        if (verification.error() == null && !tokenDenyList.isRevoked(verification.claims())) {
+            long ttlMillis = Math.min(cacheProperties.getMaxTtlSeconds() * 1000L, remainingMillis(verification.claims()));
+            if (ttlMillis > 0) {
+                sharedCache.put(digest, verification.claims(), ttlMillis);
+            }
+        }
+        return verification;
+    }
+
+    private long remainingMillis(TokenClaims claims) {
+        if (claims.getExpiration() == null) {
+            return Long.MAX_VALUE;
+        }
+        return claims.getExpiration().getTime() + jwtProperties.getClockSkew().toMillis() - clock.millis();
+    }
+
+    private Verification parseAndVerify(String token) {
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            authMetrics.record(AuthMetrics.Stage.VALIDATE_SIGNATURE_VERIFY, false, start);
+            return new Verification(null, "Token is expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            authMetrics.record(AuthMetrics.Stage.VALIDATE_SIGNATURE_VERIFY, false, start);
+            return new Verification(null, "Invalid token: " + e.getMessage());
+        }
+        authMetrics.record(AuthMetrics.Stage.VALIDATE_SIGNATURE_VERIFY, true, start);
+
+        if (claims.get(FAMILY_CLAIM) != null) {
+            return new Verification(null, "Invalid token: refresh tokens are not access tokens");
+        }
+        Integer roleMask = claims.get(ROLES_CLAIM, Integer.class);
+        Set<Role> roles = RoleMask.decode(roleMask == null ? 0 : roleMask);
+
+        return new Verification(
+                new TokenClaims(claims.getId(), claims.getSubject(), roles, claims.getIssuedAt(), claims.getExpiration()),
+                null);
+    }
+
+    private static int countPeriods(String token) {
+        int periods = 0;
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') {
+                periods++;
+            }
+        }
+        return periods;
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /**
+     * The outcome of verifying a token: its claims, or why it was rejected.
+     */
+    private record Verification(TokenClaims claims, String error) {
+    }
+
+    /**
+     * Expires cached claims no later than the token's own {@code exp} plus the allowed clock skew.
+     */
+    private record TokenExpiry(long maxTtlNanos, long clockSkewMillis, Clock clock)
+            implements Expiry<String, TokenClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = claims.getExpiration().getTime() + clockSkewMillis - clock.millis();
+            return Math.max(0, Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
 }
@@ -0,0 +1,309 @@
+package sh.abijith.authservice.util;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sh.abijith.authservice.config.SharedIntrospectionCacheProperties;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Backend that shares verified claims through Redis, or anything that speaks its protocol, at
+ * {@code jwt.shared-cache.redis-uri}. Each entry is one string key under
+ * {@code jwt.shared-cache.key-prefix} that expires with the token. Invalidations are deleted and
+ * then published on the {@code <key-prefix>invalidations} channel, which every instance subscribes to.
+ *
+ * <p>Every entry carries an HMAC-SHA256 over the token digest and the claims, keyed with
+ * {@code jwt.shared-cache.hmac-key} or, when that is blank, a key derived from {@code jwt.secret}.
+ * Entries that fail the check are counted in {@code jwt.shared.cache.rejected} and treated as
+ * misses, so write access to the store alone is not enough to plant claims.
+ *
+ * <p>The connection is opened in the background on first use, not at startup, so the service
+ * boots while Redis is down; until it is up every lookup is a miss, and a failed attempt is retried
+ * on use after {@link #RECONNECT_BACKOFF}. Every command is bounded by
+ * {@code jwt.shared-cache.timeout-millis} and is rejected at once while the connection is down.
+ * Failures are counted in {@code jwt.shared.cache.errors} and treated as misses. Connecting is
+ * guarded by a {@link ReentrantLock} rather than a monitor, so a virtual thread waiting for it
+ * does not pin its carrier.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "jwt.shared-cache", name = "backend", havingValue = "redis")
+public class RedisIntrospectionCache implements SharedIntrospectionCache {
+    static final Duration RECONNECT_BACKOFF = Duration.ofSeconds(5);
+    private static final char SEPARATOR = '|';
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_DERIVATION_LABEL = "auth-service shared introspection cache"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final String keyPrefix;
+    private final String channel;
+    private final RedisURI redisUri;
+    private final RedisClient client;
+    private final Mac mac;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final Counter errors;
+    private final Counter rejected;
+    private final Lock connectLock = new ReentrantLock();
+    private volatile CompletableFuture<Connections> connections;
+    private volatile long retryAtNanos;
+
+    public RedisIntrospectionCache(SharedIntrospectionCacheProperties props,
+                                   @Value("${jwt.secret}") String jwtSecret,
+                                   MeterRegistry meterRegistry) {
+        this.keyPrefix = props.getKeyPrefix();
+        this.channel = props.getKeyPrefix() + "invalidations";
+        this.mac = mac(props.getHmacKey(), jwtSecret);
+        this.errors = Counter.builder("jwt.shared.cache.errors")
+                .description("Shared introspection cache commands that failed or timed out")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("jwt.shared.cache.rejected")
+                .description("Shared introspection cache entries that failed the integrity check")
+                .register(meterRegistry);
+
+        this.redisUri = RedisURI.create(props.getRedisUri());
+        this.client = RedisClient.create();
+        client.setOptions(ClientOptions.builder()
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .timeoutOptions(TimeoutOptions.enabled(Duration.ofMillis(props.getTimeoutMillis())))
+                .build());
+    }
+
+    @Override
+    public TokenClaims get(String digest) {
+        try {
+            String value = commands().get(keyPrefix + digest);
+            return value == null ? null : open(digest, value);
+        } catch (RuntimeException e) {
+            failed("read", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String digest, TokenClaims claims, long ttlMillis) {
+        try {
+            commands().set(keyPrefix + digest, seal(digest, claims), SetArgs.Builder.px(ttlMillis));
+        } catch (RuntimeException e) {
+            failed("write", e);
+        }
+    }
+
+    @Override
+    public void invalidate(String digest) {
+        try {
+            commands().del(keyPrefix + digest);
+            commands().publish(channel, digest);
+        } catch (RuntimeException e) {
+            failed("invalidate", e);
+            listeners.forEach(listener -> listener.accept(digest));
+        }
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        CompletableFuture<Connections> current = connections;
+        if (current != null) {
+            current.thenAccept(Connections::close);
+        }
+        client.shutdown();
+    }
+
+    private RedisCommands<String, String> commands() {
+        CompletableFuture<Connections> current = connections;
+        if (current == null || current.isCompletedExceptionally()) {
+            current = connect();
+        }
+        Connections connected = current.getNow(null);
+        if (connected == null) {
+            throw new RedisConnectionException("Not connected to " + redisUri);
+        }
+        return connected.data().sync();
+    }
+
+    private CompletableFuture<Connections> connect() {
+        connectLock.lock();
+        try {
+            CompletableFuture<Connections> current = connections;
+            if (current != null && (!current.isCompletedExceptionally() || System.nanoTime() - retryAtNanos < 0)) {
+                return current;
+            }
+            retryAtNanos = System.nanoTime() + RECONNECT_BACKOFF.toNanos();
+            CompletableFuture<Connections> next = openConnections();
+            connections = next;
+            return next;
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private CompletableFuture<Connections> openConnections() {
+        CompletableFuture<StatefulRedisConnection<String, String>> data =
+                client.connectAsync(StringCodec.UTF8, redisUri).toCompletableFuture();
+        CompletableFuture<StatefulRedisPubSubConnection<String, String>> subscription =
+                client.connectPubSubAsync(StringCodec.UTF8, redisUri).toCompletableFuture()
+                        .thenCompose(this::subscribe);
+        CompletableFuture<Connections> next = data.thenCombine(subscription, Connections::new);
+        next.whenComplete((connected, e) -> {
+            if (e != null) {
+                failed("connect", e);
+                data.thenAccept(StatefulRedisConnection::close);
+                subscription.thenAccept(StatefulRedisPubSubConnection::close);
+            }
+        });
+        return next;
+    }
+
+    private CompletableFuture<StatefulRedisPubSubConnection<String, String>> subscribe(
+            StatefulRedisPubSubConnection<String, String> subscription) {
+        subscription.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String digest) {
+                listeners.forEach(listener -> listener.accept(digest));
+            }
+        });
+        return subscription.async().subscribe(channel).toCompletableFuture()
+                .thenApply(ignored -> subscription);
+    }
+
+    private void failed(String operation, Throwable e) {
+        errors.increment();
+        log.debug("Shared introspection cache {} failed", operation, e);
+    }
+
+    /**
+     * Returns the entry for the claims as {@code mac|jti|roleMask|iat|exp|subject}. The HMAC also
+     * covers the token digest, so an entry copied to another token's key fails the check.
+     */
+    String seal(String digest, TokenClaims claims) {
+        String payload = encode(claims);
+        return sign(digest, payload) + SEPARATOR + payload;
+    }
+
+    /**
+     * @return the claims of the entry, or null if its HMAC does not match
+     */
+    TokenClaims open(String digest, String value) {
+        int end = value.indexOf(SEPARATOR);
+        String payload = value.substring(end + 1);
+        byte[] expected = sign(digest, payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = value.substring(0, Math.max(end, 0)).getBytes(StandardCharsets.US_ASCII);
+        if (end < 0 || !MessageDigest.isEqual(expected, actual)) {
+            rejected.increment();
+            log.warn("Rejected a shared introspection cache entry that failed the integrity check");
+            return null;
+        }
+        return decode(payload);
+    }
+
+    private String sign(String digest, String payload) {
+        Mac instance;
+        try {
+            instance = (Mac) mac.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC implementation cannot be cloned", e);
+        }
+        instance.update(digest.getBytes(StandardCharsets.UTF_8));
+        instance.update((byte) SEPARATOR);
+        byte[] tag = instance.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tag);
+    }
+
+    /**
+     * Uses the configured key as is, or derives one from the JWT secret so the secret itself never
+     * keys anything but token signatures.
+     */
+    private static Mac mac(String hmacKey, String jwtSecret) {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            byte[] key;
+            if (hmacKey != null && !hmacKey.isBlank()) {
+                key = hmacKey.getBytes(StandardCharsets.UTF_8);
+            } else {
+                instance.init(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+                key = instance.doFinal(KEY_DERIVATION_LABEL);
+            }
+            instance.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise the shared cache HMAC", e);
+        }
+    }
+
+    /**
+     * Writes the claims as {@code jti|roleMask|iat|exp|subject}. The subject goes last, so it may
+     * contain the separator.
+     */
+    static String encode(TokenClaims claims) {
+        return (claims.getTokenId() == null ? "" : claims.getTokenId()) + SEPARATOR
+                + RoleMask.encode(claims.getRoles()) + SEPARATOR
+                + millis(claims.getIssuedAt()) + SEPARATOR
+                + millis(claims.getExpiration()) + SEPARATOR
+                + claims.getSubject();
+    }
+
+    static TokenClaims decode(String value) {
+        String[] fields = value.split("\\|", 5);
+        return new TokenClaims(
+                fields[0].isEmpty() ? null : fields[0],
+                fields[4],
+                RoleMask.decode(Integer.parseInt(fields[1])),
+                date(fields[2]),
+                date(fields[3]));
+    }
+
+    private static String millis(Date date) {
+        return date == null ? "" : Long.toString(date.getTime());
+    }
+
+    private static Date date(String millis) {
+        return millis.isEmpty() ? null : new Date(Long.parseLong(millis));
+    }
+
+    private record Connections(StatefulRedisConnection<String, String> data,
+                               StatefulRedisPubSubConnection<String, String> subscription) {
+
+        void close() {
+            subscription.close();
+            data.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package sh.abijith.authservice.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * The verified claims of a refresh token.
+ */
+@Getter
+@AllArgsConstructor
+public class RefreshTokenClaims {
+    private final String subject;
+    private final String tokenId;
+    private final String familyId;
+    private final Date expiration;
+}
@@ -0,0 +1,59 @@
+package sh.abijith.authservice.util;
+
+import sh.abijith.authservice.model.Role;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Encodes a set of roles as a bitmask with bit {@code n} set for the role with ordinal {@code n},
+ * which is how roles travel in the {@code roles} claim. Decoding returns one of the sets
+ * precomputed for every possible mask, so it never allocates. New roles must therefore be
+ * added at the end of {@link Role}; bits for roles this build does not know are ignored.
+ */
+public final class RoleMask {
+    private static final Role[] ROLES = Role.values();
+    private static final Set<Role>[] SETS = precompute();
+
+    private RoleMask() {
+    }
+
+    /**
+     * @param roles the roles to encode, may be null
+     * @return the bitmask of the roles
+     */
+    public static int encode(Set<Role> roles) {
+        if (roles == null) {
+            return 0;
+        }
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= 1 << role.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask a bitmask produced by {@link #encode(Set)}
+     * @return the unmodifiable set of roles in the mask
+     */
+    public static Set<Role> decode(int mask) {
+        return SETS[mask & (SETS.length - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Role>[] precompute() {
+        Set<Role>[] sets = new Set[1 << ROLES.length];
+        for (int mask = 0; mask < sets.length; mask++) {
+            EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+            for (Role role : ROLES) {
+                if ((mask & (1 << role.ordinal())) != 0) {
+                    roles.add(role);
+                }
+            }
+            sets[mask] = Collections.unmodifiableSet(roles);
+        }
+        return sets;
+    }
+}
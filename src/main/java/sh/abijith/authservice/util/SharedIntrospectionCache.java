@@ -0,0 +1,52 @@
+package sh.abijith.authservice.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Second-tier cache of verified token claims, shared by every instance and consulted by
+ * {@link JwtService} when its own claims cache misses. A token verified by one instance is then
+ * not verified again by the others. Entries are keyed by token digest, so the tokens themselves
+ * never leave the instance.
+ *
+ * <p>Only verified claims are stored; revocation is still checked on every call against
+ * {@link TokenDenyList}. Implementations must treat every failure as a miss and must not throw,
+ * so an unavailable backend only costs the verification it would have saved.
+ *
+ * <p>The backend is chosen with {@code jwt.shared-cache.backend}: {@code none} (the default),
+ * {@code in-process} or {@code redis}.
+ */
+public interface SharedIntrospectionCache {
+
+    /**
+     * @param digest the digest of the token
+     * @return the claims stored for the token, or null if there are none or the backend failed
+     */
+    TokenClaims get(String digest);
+
+    /**
+     * Stores verified claims for other instances to pick up.
+     *
+     * @param digest the digest of the token
+     * @param claims the verified claims of the token
+     * @param ttlMillis how long the entry may be served, no longer than the token is valid
+     */
+    void put(String digest, TokenClaims claims, long ttlMillis);
+
+    /**
+     * Drops the entry of a revoked token and tells every instance to drop it from its own claims
+     * cache, including the calling one.
+     *
+     * @param digest the digest of the revoked token
+     */
+    void invalidate(String digest);
+
+    /**
+     * @param listener called with the digest of every token invalidated on any instance
+     */
+    void onInvalidation(Consumer<String> listener);
+
+    /**
+     * @return true if lookups leave the process, so callers on an event loop should move off it
+     */
+    boolean isRemote();
+}
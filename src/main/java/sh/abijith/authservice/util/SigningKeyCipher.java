@@ -0,0 +1,83 @@
+package sh.abijith.authservice.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts private signing keys for storage with AES-256-GCM. The key-encryption key is derived
+ * from {@code jwt.signing.key-encryption-key} or, when that is blank, from {@code jwt.secret}.
+ * The key id is bound as associated data, so an encrypted key copied to another document fails
+ * to decrypt. Stored values are {@code v1:} followed by the base64 of the IV and ciphertext.
+ */
+class SigningKeyCipher {
+    private static final String PREFIX = "v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final byte[] KEY_DERIVATION_LABEL = "auth-service signing key encryption"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    SigningKeyCipher(String keyEncryptionKey, String jwtSecret) {
+        String source = keyEncryptionKey != null && !keyEncryptionKey.isBlank() ? keyEncryptionKey : jwtSecret;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(source.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            this.key = new SecretKeySpec(mac.doFinal(KEY_DERIVATION_LABEL), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive the signing key encryption key", e);
+        }
+    }
+
+    /**
+     * @param kid the id of the key, bound to the ciphertext
+     * @param encoded the DER encoded private key
+     * @return the value to store
+     */
+    String encrypt(String kid, byte[] encoded) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(encoded);
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt signing key " + kid, e);
+        }
+    }
+
+    /**
+     * @param kid the id of the key the value was stored under
+     * @param stored the stored value
+     * @return the DER encoded private key
+     * @throws IllegalStateException if the value is not encrypted or fails authentication
+     */
+    byte[] decrypt(String kid, String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            throw new IllegalStateException("Signing key " + kid + " is not encrypted");
+        }
+        byte[] data = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decrypt signing key " + kid
+                    + "; check jwt.signing.key-encryption-key", e);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package sh.abijith.authservice.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.model.SigningKey;
+import sh.abijith.authservice.repository.SigningKeyRepository;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds the keys used to sign and verify tokens.
+ *
+ * <p>With {@code jwt.signing.algorithm=HS256}, tokens are signed with {@code jwt.secret} and
+ * carry no {@code kid}, exactly as before. With {@code RS256} or {@code ES256}, tokens are signed
+ * with the newest active key of a ring stored in MongoDB, and their header names that key. The
+ * ring is reloaded periodically, and immediately when a token names an unknown key, so keys
+ * rotated by another instance are picked up. Tokens without a {@code kid} are verified against
+ * {@code jwt.secret} only until {@code jwt.signing.accept-kidless-until}, so HS256 tokens issued
+ * before a switch remain valid while they drain; after that instant, or when it is unset, a
+ * leaked {@code jwt.secret} can no longer mint tokens that this service accepts.
+ *
+ * <p>Private keys are stored encrypted by {@link SigningKeyCipher}. A key that cannot be decrypted
+ * with the configured key-encryption key, such as one stored in plain text by an earlier version,
+ * still verifies tokens but never signs; if no active key can sign, a new one is generated.
+ *
+ * <p>The current state is an immutable snapshot swapped atomically. Signing and verification
+ * read it without locking.
+ */
+@Slf4j
+@Component
+public class SigningKeyRing {
+    private static final long UNKNOWN_KID_RELOAD_MILLIS = 5_000;
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtSigningProperties signingProps;
+    private final SigningKeyRepository signingKeyRepository;
+    private final SignatureAlgorithm algorithm;
+    private final Clock clock;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private Key secretKey;
+
+    private SigningKeyCipher cipher;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastReload;
+
+    public SigningKeyRing(JwtSigningProperties signingProps, SigningKeyRepository signingKeyRepository, Clock clock) {
+        this.signingProps = signingProps;
+        this.signingKeyRepository = signingKeyRepository;
+        this.clock = clock;
+        this.algorithm = SignatureAlgorithm.forName(signingProps.getAlgorithm());
+        if (algorithm != SignatureAlgorithm.HS256
+                && algorithm != SignatureAlgorithm.RS256
+                && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + signingProps.getAlgorithm());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        cipher = new SigningKeyCipher(signingProps.getKeyEncryptionKey(), secret);
+        if (isAsymmetric()) {
+            rotate();
+        } else {
+            snapshot = new Snapshot(new ActiveKey(null, secretKey, algorithm), Map.of(), jwks(List.of()), "0");
+        }
+    }
+
+    /**
+     * @return the key new tokens are signed with
+     */
+    public ActiveKey activeKey() {
+        return snapshot.active();
+    }
+
+    /**
+     * @return resolver selecting the verification key from the token's {@code kid} header
+     */
+    public SigningKeyResolverAdapter resolver() {
+        return new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return verificationKey(header.getKeyId());
+            }
+        };
+    }
+
+    /**
+     * @return the public keys of the ring as a JSON Web Key Set
+     */
+    public Map<String, Object> jwks() {
+        return snapshot.jwks();
+    }
+
+    /**
+     * @return an entity tag that changes whenever the published key set changes
+     */
+    public String jwksVersion() {
+        return snapshot.jwksVersion();
+    }
+
+    /**
+     * Reloads the ring from MongoDB and creates a new key once the newest one is older than
+     * {@code jwt.signing.rotation-interval-hours}. The new key is published straight away but
+     * only signs after {@code jwt.signing.publish-lead-seconds}. Concurrent rotations on several
+     * instances at worst create an extra key, which is harmless.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.refresh-interval-millis:60000}")
+    public void rotate() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        try {
+            List<SigningKey> keys = load();
+            long now = clock.millis();
+            long rotationMillis = signingProps.getRotationIntervalHours() * 3_600_000L;
+            boolean hasActive = keys.stream().anyMatch(key -> key.getActivateAt().getTime() <= now && canSign(key));
+            boolean due = keys.isEmpty() || keys.getFirst().getCreatedAt().getTime() + rotationMillis <= now;
+
+            if (!hasActive || due) {
+                long activateAt = hasActive ? now + signingProps.getPublishLeadSeconds() * 1000L : now;
+                signingKeyRepository.insert(generate(now, activateAt));
+                keys = load();
+                log.info("Generated a new {} signing key", algorithm.getValue());
+            }
+            publish(keys);
+        } catch (RuntimeException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            log.warn("Could not refresh the signing key ring; keeping the current keys", e);
+        }
+    }
+
+    private Key verificationKey(String kid) {
+        if (kid == null) {
+            if (isAsymmetric() && !acceptsKidless()) {
+                throw new SignatureException("Token has no signing key id");
+            }
+            return secretKey;
+        }
+        Key key = snapshot.verificationKeys().get(kid);
+        if (key == null && isAsymmetric()
+                && clock.millis() - lastReload > UNKNOWN_KID_RELOAD_MILLIS) {
+            publish(load());
+            key = snapshot.verificationKeys().get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    private boolean isAsymmetric() {
+        return algorithm != SignatureAlgorithm.HS256;
+    }
+
+    private boolean acceptsKidless() {
+        Instant until = signingProps.getAcceptKidlessUntil();
+        return until != null && clock.instant().isBefore(until);
+    }
+
+    private List<SigningKey> load() {
+        lastReload = clock.millis();
+        return signingKeyRepository.findByExpiresAtAfterOrderByActivateAtDesc(new Date(lastReload));
+    }
+
+    private void publish(List<SigningKey> keys) {
+        long now = clock.millis();
+        ActiveKey active = null;
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+
+        for (SigningKey key : keys) {
+            SignatureAlgorithm keyAlgorithm = SignatureAlgorithm.forName(key.getAlgorithm());
+            PublicKey publicKey = decodePublic(keyAlgorithm, key.getPublicKey());
+            verificationKeys.put(key.getId(), publicKey);
+            jwks.add(jwk(key.getId(), keyAlgorithm, publicKey));
+
+            if (active == null && key.getActivateAt().getTime() <= now && canSign(key)) {
+                active = new ActiveKey(key.getId(), decodePrivate(keyAlgorithm, privateKey(key)), keyAlgorithm);
+            }
+        }
+        if (active == null) {
+            active = snapshot != null ? snapshot.active() : null;
+        }
+        if (active == null) {
+            throw new IllegalStateException("No active " + algorithm.getValue() + " signing key");
+        }
+        snapshot = new Snapshot(active, Map.copyOf(verificationKeys), jwks(jwks),
+                Integer.toHexString(String.join(",", verificationKeys.keySet()).hashCode()));
+    }
+
+    private SigningKey generate(long now, long activateAt) {
+        KeyPair keyPair = Keys.keyPairFor(algorithm);
+        long retentionMillis = (signingProps.getRotationIntervalHours() + signingProps.getKeyRetentionHours()) * 3_600_000L;
+        String kid = UUID.randomUUID().toString();
+        return new SigningKey(
+                kid,
+                algorithm.getValue(),
+                cipher.encrypt(kid, keyPair.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                new Date(now),
+                new Date(activateAt),
+                new Date(activateAt + retentionMillis));
+    }
+
+    private static PublicKey decodePublic(SignatureAlgorithm algorithm, String encoded) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Malformed public signing key", e);
+        }
+    }
+
+    /**
+     * @return true if the key uses the configured algorithm and its private key decrypts
+     */
+    private boolean canSign(SigningKey key) {
+        if (!algorithm.getValue().equals(key.getAlgorithm())) {
+            return false;
+        }
+        try {
+            privateKey(key);
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Signing key {} cannot sign", key.getId(), e);
+            return false;
+        }
+    }
+
+    private byte[] privateKey(SigningKey key) {
+        return cipher.decrypt(key.getId(), key.getPrivateKey());
+    }
+
+    private static PrivateKey decodePrivate(SignatureAlgorithm algorithm, byte[] encoded) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Malformed private signing key", e);
+        }
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(algorithm.getFamilyName().equals("ECDSA") ? "EC" : "RSA");
+    }
+
+    private static Map<String, Object> jwk(String kid, SignatureAlgorithm algorithm, PublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.getValue());
+        if (publicKey instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", BASE64URL.encodeToString(unsigned(rsa.getModulus(), 0)));
+            jwk.put("e", BASE64URL.encodeToString(unsigned(rsa.getPublicExponent(), 0)));
+        } else if (publicKey instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", BASE64URL.encodeToString(unsigned(ec.getW().getAffineX(), 32)));
+            jwk.put("y", BASE64URL.encodeToString(unsigned(ec.getW().getAffineY(), 32)));
+        }
+        return jwk;
+    }
+
+    private static Map<String, Object> jwks(List<Map<String, Object>> keys) {
+        return Map.of("keys", List.copyOf(keys));
+    }
+
+    /**
+     * Big-endian magnitude without the sign byte, left-padded to {@code length} when non-zero.
+     */
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return bytes;
+    }
+
+    /**
+     * A signing key together with its {@code kid}, which is null for the shared secret.
+     */
+    public record ActiveKey(String kid, Key key, SignatureAlgorithm algorithm) {
+    }
+
+    private record Snapshot(ActiveKey active, Map<String, Key> verificationKeys,
+                            Map<String, Object> jwks, String jwksVersion) {
+    }
+}
@@ -0,0 +1,21 @@
+package sh.abijith.authservice.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import sh.abijith.authservice.model.Role;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Verified claims of a JWT, produced once per token by {@link JwtService#parseOnce(String)}.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenClaims {
+    private final String tokenId;
+    private final String subject;
+    private final Set<Role> roles;
+    private final Date issuedAt;
+    private final Date expiration;
+}
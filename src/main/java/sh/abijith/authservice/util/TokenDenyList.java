@@ -0,0 +1,158 @@
+package sh.abijith.authservice.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sh.abijith.authservice.config.TokenRevocationProperties;
+import sh.abijith.authservice.model.TokenRevocation;
+import sh.abijith.authservice.repository.TokenRevocationRepository;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access tokens, consulted on every validation after the claims cache. Holds two maps:
+ * revoked token ids to their expiry, and subjects to the time before which all their tokens are
+ * revoked. A lookup is at most two hash probes on keys the claims already hold, so it allocates
+ * nothing.
+ *
+ * <p>Revocations are written to MongoDB and pulled by every instance every
+ * {@code auth.revocation.sync-millis}. Entries are pruned once every token they cover has
+ * expired, which bounds memory by the number of revocations in one access-token lifetime.
+ */
+@Slf4j
+@Component
+public class TokenDenyList {
+    private final TokenRevocationRepository revocationRepository;
+    private final TokenRevocationProperties revocationProps;
+    private final Clock clock;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, SubjectRevocation> revokedSubjects = new ConcurrentHashMap<>();
+    private volatile long syncedUpTo;
+
+    public TokenDenyList(TokenRevocationRepository revocationRepository,
+                         TokenRevocationProperties revocationProps,
+                         Clock clock,
+                         MeterRegistry meterRegistry) {
+        this.revocationRepository = revocationRepository;
+        this.revocationProps = revocationProps;
+        this.clock = clock;
+        Gauge.builder("auth.revocation.tokens", revokedTokens, Map::size)
+                .description("Revoked access token ids held in memory")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.subjects", revokedSubjects, Map::size)
+                .description("Subjects with all earlier access tokens revoked")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        sync();
+    }
+
+    /**
+     * @param claims the verified claims of an access token
+     * @return true if the token itself or all tokens of its subject issued before it were revoked
+     */
+    public boolean isRevoked(TokenClaims claims) {
+        if (claims.getTokenId() != null && revokedTokens.containsKey(claims.getTokenId())) {
+            return true;
+        }
+        if (revokedSubjects.isEmpty()) {
+            return false;
+        }
+        SubjectRevocation subject = revokedSubjects.get(claims.getSubject());
+        return subject != null
+                && (claims.getIssuedAt() == null || claims.getIssuedAt().getTime() < subject.notBefore());
+    }
+
+    /**
+     * Returns the issue time to put in a new token of the subject. A subject revocation cuts off
+     * at the next whole second, so a token minted later in that same second would carry an issue
+     * time before the cut-off and be born revoked; its issue time is moved up to the cut-off instead.
+     *
+     * @param subject the subject of the new token
+     * @param now the current time
+     * @return {@code now}, or the subject's cut-off if that is later
+     */
+    public long issueTimeFor(String subject, long now) {
+        if (revokedSubjects.isEmpty()) {
+            return now;
+        }
+        SubjectRevocation revocation = revokedSubjects.get(subject);
+        return revocation == null ? now : Math.max(now, revocation.notBefore());
+    }
+
+    /**
+     * Revokes a single access token.
+     *
+     * @param tokenId the token's {@code jti}
+     * @param subject the subject of the token
+     * @param expiresAt the token's expiry, after which the entry is dropped
+     */
+    public void revokeToken(String tokenId, String subject, Date expiresAt) {
+        revocationRepository.save(TokenRevocation.ofToken(tokenId, subject, new Date(clock.millis()), expiresAt));
+        revokedTokens.put(tokenId, expiresAt.getTime());
+    }
+
+    /**
+     * Revokes every access token of a subject issued so far. Token issue times have second
+     * precision, so the cut-off is rounded up to the next whole second.
+     *
+     * @param subject the subject whose tokens are revoked
+     * @param now the time of revocation
+     * @param maxTokenLifetimeMillis the lifetime of an access token, after which the entry is dropped
+     */
+    public void revokeSubject(String subject, Date now, long maxTokenLifetimeMillis) {
+        long notBefore = (now.getTime() / 1000 + 1) * 1000;
+        long expiresAt = notBefore + maxTokenLifetimeMillis;
+        revocationRepository.save(TokenRevocation.ofSubject(subject, new Date(notBefore), now, new Date(expiresAt)));
+        revokedSubjects.merge(subject, new SubjectRevocation(notBefore, expiresAt), SubjectRevocation::latest);
+    }
+
+    /**
+     * Pulls revocations made since the last sync, overlapping by
+     * {@code auth.revocation.sync-overlap-seconds} to tolerate clock skew between instances,
+     * and drops entries whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-millis:2000}")
+    public void sync() {
+        long now = clock.millis();
+        try {
+            List<TokenRevocation> revocations = syncedUpTo == 0
+                    ? revocationRepository.findAll()
+                    : revocationRepository.findByRevokedAtGreaterThanEqual(
+                            new Date(syncedUpTo - revocationProps.getSyncOverlapSeconds() * 1000L));
+            revocations.forEach(this::apply);
+            syncedUpTo = now;
+        } catch (RuntimeException e) {
+            log.warn("Could not sync token revocations; will retry", e);
+        }
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedSubjects.values().removeIf(subject -> subject.expiresAt() <= now);
+    }
+
+    private void apply(TokenRevocation revocation) {
+        long expiresAt = revocation.getExpiresAt().getTime();
+        if (revocation.getTokenId() != null) {
+            revokedTokens.put(revocation.getTokenId(), expiresAt);
+        } else if (revocation.getNotBefore() != null) {
+            revokedSubjects.merge(revocation.getSubject(),
+                    new SubjectRevocation(revocation.getNotBefore().getTime(), expiresAt), SubjectRevocation::latest);
+        }
+    }
+
+    private record SubjectRevocation(long notBefore, long expiresAt) {
+
+        static SubjectRevocation latest(SubjectRevocation a, SubjectRevocation b) {
+            return a.notBefore() >= b.notBefore() ? a : b;
+        }
+    }
+}
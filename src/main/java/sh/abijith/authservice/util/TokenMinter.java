@@ -0,0 +1,358 @@
+package sh.abijith.authservice.util;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Writes signed JWTs without going through the jjwt builder. The encoded header is computed once
+ * per signing key. The claims JSON is written straight into a pooled buffer and base64url
+ * encoded in place. The pooled {@link Mac} or {@link Signature} is initialised only when the
+ * signing key changes. Apart from the returned string and the token id, minting a token allocates
+ * nothing.
+ *
+ * <p>The pool has two slots per core, picked by thread id, rather than one set of buffers per
+ * thread: with virtual threads every request runs on a new thread, so a thread-local would
+ * allocate and initialise a set per request and could pin one per live thread. A caller that finds
+ * its slots taken mints with fresh buffers, which are kept only if a slot is free afterwards.
+ *
+ * <p>ES256 signatures are produced in the JWS (IEEE P1363) format rather than DER. Tokens are
+ * verified with the regular jjwt parser.
+ */
+final class TokenMinter {
+    private static final byte[] BASE64URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_SIGNATURE_BYTES = 512;
+    private static final int POOL_PROBES = 2;
+
+    private final SigningKeyRing signingKeyRing;
+    private final AtomicReferenceArray<Buffers> pool =
+            new AtomicReferenceArray<>(Integer.highestOneBit(2 * Runtime.getRuntime().availableProcessors() - 1) << 1);
+
+    private volatile Template template;
+
+    TokenMinter(SigningKeyRing signingKeyRing) {
+        this.signingKeyRing = signingKeyRing;
+    }
+
+    /**
+     * @return a signed access token with the {@code jti}, {@code sub}, {@code roles}, {@code iat}
+     *         and {@code exp} claims
+     */
+    String accessToken(String tokenId, String subject, int roleMask, long issuedAtMillis, long expiresAtMillis) {
+        Buffers b = acquire();
+        b.json.reset(subject.length() + tokenId.length());
+        b.json.raw("{\"jti\":").string(tokenId)
+                .raw(",\"sub\":").string(subject)
+                .raw(",\"roles\":").number(roleMask)
+                .raw(",\"iat\":").number(issuedAtMillis / 1000)
+                .raw(",\"exp\":").number(expiresAtMillis / 1000)
+                .raw("}");
+        String token = sign(b);
+        release(b);
+        return token;
+    }
+
+    /**
+     * @return a signed refresh token with the {@code jti}, {@code sub}, {@code fid}, {@code iat}
+     *         and {@code exp} claims
+     */
+    String refreshToken(String tokenId, String subject, String familyId, long issuedAtMillis, long expiresAtMillis) {
+        Buffers b = acquire();
+        b.json.reset(subject.length() + tokenId.length() + familyId.length());
+        b.json.raw("{\"jti\":").string(tokenId)
+                .raw(",\"sub\":").string(subject)
+                .raw(",\"fid\":").string(familyId)
+                .raw(",\"iat\":").number(issuedAtMillis / 1000)
+                .raw(",\"exp\":").number(expiresAtMillis / 1000)
+                .raw("}");
+        String token = sign(b);
+        release(b);
+        return token;
+    }
+
+    private String sign(Buffers b) {
+        Template t = currentTemplate();
+        JsonWriter json = b.json;
+
+        byte[] token = b.token(t.header.length + 2 + base64Length(json.length) + base64Length(MAX_SIGNATURE_BYTES));
+        System.arraycopy(t.header, 0, token, 0, t.header.length);
+        int length = t.header.length;
+        token[length++] = '.';
+        length = base64url(json.bytes, json.length, token, length);
+
+        int signatureLength;
+        try {
+            signatureLength = t.hmac
+                    ? b.mac(t).doFinalInto(token, length, b.signature)
+                    : b.signer(t).signInto(token, length, b.signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+
+        token[length++] = '.';
+        length = base64url(b.signature, signatureLength, token, length);
+        return new String(token, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Takes buffers from one of the calling thread's slots, or allocates new ones if both are taken.
+     */
+    private Buffers acquire() {
+        int home = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < POOL_PROBES; i++) {
+            Buffers b = pool.getAndSet((home + i) & (pool.length() - 1), null);
+            if (b != null) {
+                return b;
+            }
+        }
+        return new Buffers();
+    }
+
+    /**
+     * Returns buffers to a free slot, or drops them if there is none. Buffers are only returned
+     * after a successful signature, so an engine left in an unknown state is never reused.
+     */
+    private void release(Buffers b) {
+        int home = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < POOL_PROBES; i++) {
+            if (pool.compareAndSet((home + i) & (pool.length() - 1), null, b)) {
+                return;
+            }
+        }
+    }
+
+    private Template currentTemplate() {
+        SigningKeyRing.ActiveKey activeKey = signingKeyRing.activeKey();
+        Template t = template;
+        if (t == null || t.activeKey != activeKey) {
+            t = new Template(activeKey);
+            template = t;
+        }
+        return t;
+    }
+
+    private static int base64Length(int bytes) {
+        return (bytes * 4 + 2) / 3;
+    }
+
+    /**
+     * Unpadded base64url encoding of {@code src[0..length)} into {@code dst} at {@code offset}.
+     *
+     * @return the offset after the last byte written
+     */
+    private static int base64url(byte[] src, int length, byte[] dst, int offset) {
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[offset++] = BASE64URL[bits >>> 18];
+            dst[offset++] = BASE64URL[(bits >>> 12) & 0x3f];
+            dst[offset++] = BASE64URL[(bits >>> 6) & 0x3f];
+            dst[offset++] = BASE64URL[bits & 0x3f];
+        }
+        if (i < length) {
+            int bits = (src[i] & 0xff) << 16 | (i + 1 < length ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[offset++] = BASE64URL[bits >>> 18];
+            dst[offset++] = BASE64URL[(bits >>> 12) & 0x3f];
+            if (i + 1 < length) {
+                dst[offset++] = BASE64URL[(bits >>> 6) & 0x3f];
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * The encoded header and JCA algorithm for one signing key.
+     */
+    private static final class Template {
+        private final SigningKeyRing.ActiveKey activeKey;
+        private final byte[] header;
+        private final boolean hmac;
+        private final String jcaName;
+
+        Template(SigningKeyRing.ActiveKey activeKey) {
+            this.activeKey = activeKey;
+            SignatureAlgorithm algorithm = activeKey.algorithm();
+            this.hmac = algorithm.isHmac();
+            this.jcaName = algorithm.isEllipticCurve()
+                    ? algorithm.getJcaName() + "inP1363Format"
+                    : algorithm.getJcaName();
+
+            JsonWriter json = new JsonWriter();
+            json.reset(activeKey.kid() == null ? 0 : activeKey.kid().length());
+            json.raw("{");
+            if (activeKey.kid() != null) {
+                json.raw("\"kid\":").string(activeKey.kid()).raw(",");
+            }
+            json.raw("\"alg\":").string(algorithm.getValue()).raw("}");
+
+            byte[] encoded = new byte[base64Length(json.length)];
+            base64url(json.bytes, json.length, encoded, 0);
+            this.header = encoded;
+        }
+    }
+
+    /**
+     * Pooled scratch space and signing engines, used by one thread at a time.
+     */
+    private static final class Buffers {
+        private final JsonWriter json = new JsonWriter();
+        private final byte[] signature = new byte[MAX_SIGNATURE_BYTES];
+        private byte[] token = new byte[1024];
+
+        private final MacEngine macEngine = new MacEngine();
+        private final SignatureEngine signatureEngine = new SignatureEngine();
+
+        byte[] token(int capacity) {
+            if (token.length < capacity) {
+                token = new byte[Math.max(capacity, token.length * 2)];
+            }
+            return token;
+        }
+
+        MacEngine mac(Template t) throws GeneralSecurityException {
+            macEngine.init(t);
+            return macEngine;
+        }
+
+        SignatureEngine signer(Template t) throws GeneralSecurityException {
+            signatureEngine.init(t);
+            return signatureEngine;
+        }
+    }
+
+    private static final class MacEngine {
+        private Mac mac;
+        private Key key;
+
+        void init(Template t) throws GeneralSecurityException {
+            Key current = t.activeKey.key();
+            if (key == current) {
+                return;
+            }
+            if (mac == null || !mac.getAlgorithm().equals(t.jcaName)) {
+                mac = Mac.getInstance(t.jcaName);
+            }
+            mac.init(current);
+            key = current;
+        }
+
+        int doFinalInto(byte[] input, int length, byte[] out) throws GeneralSecurityException {
+            mac.update(input, 0, length);
+            mac.doFinal(out, 0);
+            return mac.getMacLength();
+        }
+    }
+
+    private static final class SignatureEngine {
+        private Signature signature;
+        private Key key;
+
+        void init(Template t) throws GeneralSecurityException {
+            Key current = t.activeKey.key();
+            if (key == current) {
+                return;
+            }
+            if (signature == null || !signature.getAlgorithm().equals(t.jcaName)) {
+                signature = Signature.getInstance(t.jcaName);
+            }
+            signature.initSign((PrivateKey) current);
+            key = current;
+        }
+
+        int signInto(byte[] input, int length, byte[] out) throws GeneralSecurityException {
+            signature.update(input, 0, length);
+            return signature.sign(out, 0, out.length);
+        }
+    }
+
+    /**
+     * Minimal UTF-8 JSON writer over a reusable byte array.
+     */
+    private static final class JsonWriter {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        /**
+         * Clears the writer and makes room for the fixed parts plus {@code stringChars} characters
+         * of string values, each of which may expand to a six-byte escape.
+         */
+        void reset(int stringChars) {
+            int capacity = 128 + stringChars * 6;
+            if (bytes.length < capacity) {
+                bytes = new byte[Math.max(capacity, bytes.length * 2)];
+            }
+            length = 0;
+        }
+
+        JsonWriter raw(String ascii) {
+            for (int i = 0; i < ascii.length(); i++) {
+                bytes[length++] = (byte) ascii.charAt(i);
+            }
+            return this;
+        }
+
+        JsonWriter number(long value) {
+            if (value < 0) {
+                bytes[length++] = '-';
+                value = -value;
+            }
+            int start = length;
+            do {
+                bytes[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte tmp = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = tmp;
+            }
+            return this;
+        }
+
+        JsonWriter string(String value) {
+            bytes[length++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    bytes[length++] = '\\';
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x20) {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 'u';
+                    bytes[length++] = '0';
+                    bytes[length++] = '0';
+                    bytes[length++] = HEX[c >> 4];
+                    bytes[length++] = HEX[c & 0xf];
+                } else if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xc0 | c >> 6);
+                    bytes[length++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[length++] = (byte) (0xf0 | codePoint >> 18);
+                    bytes[length++] = (byte) (0x80 | (codePoint >> 12) & 0x3f);
+                    bytes[length++] = (byte) (0x80 | (codePoint >> 6) & 0x3f);
+                    bytes[length++] = (byte) (0x80 | codePoint & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    bytes[length++] = (byte) '?';
+                } else {
+                    bytes[length++] = (byte) (0xe0 | c >> 12);
+                    bytes[length++] = (byte) (0x80 | (c >> 6) & 0x3f);
+                    bytes[length++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            bytes[length++] = '"';
+            return this;
+        }
+    }
+}
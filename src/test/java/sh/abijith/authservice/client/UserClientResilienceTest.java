@@ -0,0 +1,129 @@
+package sh.abijith.authservice.client;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sh.abijith.authservice.dto.UserProfileRequest;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.support.UserServiceStub;
+import sh.abijith.authservice.support.UserServiceStub.Response;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.boot.admin.client.enabled=false",
+        "jwt.secret=test-secret-test-secret-test-secret-test",
+        "services.user.client.read-timeout-millis=1000",
+        "services.user.client.max-concurrent-calls=2",
+        "services.user.client.sliding-window-size=4",
+        "services.user.client.minimum-calls=4",
+        "services.user.client.open-state-millis=60000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Testcontainers(disabledWithoutDocker = true)
+class UserClientResilienceTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    static UserServiceStub userService = UserServiceStub.start();
+
+    @DynamicPropertySource
+    static void userServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("services.user.base-url", userService::baseUrl);
+    }
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void reset() {
+        userService.reset();
+    }
+
+    @AfterAll
+    static void stopUserService() {
+        userService.stop();
+    }
+
+    @Test
+    void slowResponsesAreCutOffAtTheReadTimeout() {
+        userService.respondWith(Response.delayed(201, 3000));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> userClient.createUserProfile(profile("slow")))
+                .isInstanceOf(RetryableException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(2500));
+    }
+
+    @Test
+    void breakerOpensOnServerErrorsAndFailsFast() {
+        userService.respondWith(Response.status(500), Response.status(503), Response.status(500), Response.status(502));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> userClient.createUserProfile(profile("failing")))
+                    .isInstanceOf(FeignException.class);
+        }
+
+        assertThatThrownBy(() -> userClient.createUserProfile(profile("short-circuited")))
+                .isInstanceOf(CallNotPermittedException.class);
+        assertThat(userService.requests()).hasSize(4);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", UserClientConfiguration.NAME)
+                .tag("state", "open")
+                .gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() {
+        userService.respondWith(Response.delayed(201, 800), Response.delayed(201, 800));
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            var inFlight = CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> userClient.createUserProfile(profile("first")), executor),
+                    CompletableFuture.runAsync(() -> userClient.createUserProfile(profile("second")), executor));
+            await().atMost(Duration.ofSeconds(5)).until(() -> userService.requests().size() == 2);
+
+            assertThatThrownBy(() -> userClient.createUserProfile(profile("third")))
+                    .isInstanceOf(BulkheadFullException.class);
+            inFlight.join();
+        }
+
+        assertThat(userService.requests()).hasSize(2);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", UserClientConfiguration.NAME)
+                .gauge().value()).isPositive();
+    }
+
+    private static UserProfileRequest profile(String name) {
+        return new UserProfileRequest("id-" + name, name + "@example.com", "Ada", "Lovelace", Set.of(Role.USER));
+    }
+}
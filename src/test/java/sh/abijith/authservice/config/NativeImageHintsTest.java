@@ -0,0 +1,48 @@
+package sh.abijith.authservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import sh.abijith.authservice.client.UserClient;
+import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.model.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeImageHintsTest {
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageHintsTest() {
+        new NativeImageHints.Registrar().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void everyJjwtTypeLoadedByNameExists() {
+        for (String type : NativeImageHints.JJWT_TYPES) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))).accepts(hints);
+            assertThat(classExists(type)).as(type).isTrue();
+        }
+    }
+
+    @Test
+    void registersDtosDocumentsAndTheFeignProxy() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(LoginRequest.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(User.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(UserClient.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Deserializer")).accepts(hints);
+    }
+
+    private static boolean classExists(String name) {
+        try {
+            Class.forName(name, false, NativeImageHintsTest.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package sh.abijith.authservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.util.SigningKeyRing;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwksControllerTest {
+    private final SigningKeyRing signingKeyRing = mock(SigningKeyRing.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new JwksController(signingKeyRing, new JwtSigningProperties()))
+            .build();
+
+    @Test
+    void keySetIsServedWithAnETagAndRevalidatedWithNotModified() throws Exception {
+        when(signingKeyRing.jwks()).thenReturn(Map.of("keys", List.of(Map.of("kid", "key-1"))));
+        when(signingKeyRing.jwksVersion()).thenReturn("1a2b");
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1a2b\""))
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kid").value("key-1"));
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", "\"1a2b\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void rotatedKeySetIsServedInFullToAStaleETag() throws Exception {
+        when(signingKeyRing.jwks()).thenReturn(Map.of("keys", List.of(Map.of("kid", "key-2"))));
+        when(signingKeyRing.jwksVersion()).thenReturn("3c4d");
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", "\"1a2b\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3c4d\""))
+                .andExpect(jsonPath("$.keys[0].kid").value("key-2"));
+    }
+}
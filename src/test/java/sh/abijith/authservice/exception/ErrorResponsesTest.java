@@ -0,0 +1,81 @@
+package sh.abijith.authservice.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import sh.abijith.authservice.dto.ErrorResponse;
+import sh.abijith.authservice.support.MutableClock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorResponsesTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ErrorResponses errorResponses = new ErrorResponses(clock, meterRegistry);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void bodiesMatchWhatJacksonWritesForAnErrorResponse() throws Exception {
+        String[] messages = {
+                "Invalid email or password",
+                "Invalid token: \"quoted\" \\ back\\slash",
+                "line\nbreak\ttab\r\u0001\u001f",
+                "caf\u00e9 \u2603 \ud83d\udd12",
+                null
+        };
+        for (String message : messages) {
+            for (HttpStatus status : new HttpStatus[]{HttpStatus.UNAUTHORIZED, HttpStatus.TOO_MANY_REQUESTS}) {
+                clock.advance(Duration.ofMillis(123));
+
+                ResponseEntity<byte[]> response = errorResponses.build(
+                        InvalidTokenException.class, status, message, "/auth/validate-token");
+
+                assertThat(response.getStatusCode()).isEqualTo(status);
+                assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+                assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).as(message)
+                        .isEqualTo(jackson(status, message, "/auth/validate-token"));
+            }
+        }
+    }
+
+    @Test
+    void pathsAreEscapedPerRequest() throws Exception {
+        String path = "/auth/\"odd\"\\path";
+
+        byte[] body = errorResponses.build(InvalidCredentialsException.class, HttpStatus.UNAUTHORIZED,
+                "Invalid email or password", path).getBody();
+
+        assertThat(new String(body, StandardCharsets.UTF_8)).isEqualTo(jackson(HttpStatus.UNAUTHORIZED, "Invalid email or password", path));
+    }
+
+    @Test
+    void countsErrorsByExceptionTypeAndStatus() {
+        errorResponses.build(InvalidCredentialsException.class, HttpStatus.UNAUTHORIZED, "a", "/auth/login");
+        errorResponses.build(InvalidCredentialsException.class, HttpStatus.UNAUTHORIZED, "b", "/auth/login");
+        errorResponses.build(AccountLockedException.class, HttpStatus.FORBIDDEN, "c", "/auth/login");
+
+        assertThat(meterRegistry.get("auth.errors")
+                .tag("exception", "InvalidCredentialsException").tag("status", "401").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.errors")
+                .tag("exception", "AccountLockedException").tag("status", "403").counter().count()).isEqualTo(1);
+    }
+
+    private String jackson(HttpStatus status, String message, String path) throws Exception {
+        return objectMapper.writeValueAsString(ErrorResponse.builder()
+                .timestamp(LocalDateTime.now(clock))
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(path)
+                .build());
+    }
+}
@@ -0,0 +1,93 @@
+package sh.abijith.authservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sh.abijith.authservice.exception.InvalidCursorException;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+class UserRepositoryBulkTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void unlockExpiredClearsOnlyLocksOlderThanTheCutoff() {
+        long now = System.currentTimeMillis();
+        User expired = saveUser("expired@example.com", new Date(now - 60_000));
+        User active = saveUser("active@example.com", new Date(now));
+        User unlocked = saveUser("unlocked@example.com", null);
+
+        LocalDateTime sweptAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        assertThat(userRepository.unlockExpired(new Date(now - 30_000), sweptAt)).isEqualTo(1);
+
+        User stored = userRepository.findById(expired.getId()).orElseThrow();
+        assertThat(stored.isLocked()).isFalse();
+        assertThat(stored.getFailedAttempts()).isZero();
+        assertThat(stored.getUpdatedAt()).isEqualTo(sweptAt);
+        assertThat(stored.getLockTime()).isNull();
+        assertThat(userRepository.findById(active.getId()).orElseThrow().isLocked()).isTrue();
+        assertThat(userRepository.findById(unlocked.getId()).orElseThrow().isLocked()).isFalse();
+    }
+
+    @Test
+    void summariesArePagedByIdWithoutPasswords() {
+        for (int i = 0; i < 7; i++) {
+            saveUser("page-" + i + "@example.com", null);
+        }
+
+        List<String> emails = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        List<UserSummary> page;
+        do {
+            try (Stream<UserSummary> users = userRepository.streamSummaries(after, 3, 2)) {
+                page = users.toList();
+            }
+            page.forEach(user -> emails.add(user.getEmail()));
+            after = page.isEmpty() ? after : page.getLast().getId();
+            pages++;
+        } while (page.size() == 3);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(emails).hasSize(7).doesNotHaveDuplicates();
+        assertThatThrownBy(() -> userRepository.streamSummaries("not-an-id", 0, 2))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private User saveUser(String email, Date lockTime) {
+        var user = new User();
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setFailedAttempts(lockTime == null ? 0 : 5);
+        user.setLocked(lockTime != null);
+        user.setLockTime(lockTime);
+        return userRepository.save(user);
+    }
+}
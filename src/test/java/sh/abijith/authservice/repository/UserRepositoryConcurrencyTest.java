@@ -0,0 +1,98 @@
+package sh.abijith.authservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sh.abijith.authservice.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+class UserRepositoryConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void parallelFailedLoginsAreAllCounted() throws Exception {
+        User user = saveUser("parallel@example.com");
+        int attempts = 200;
+
+        List<Integer> observed = incrementConcurrently(user.getId(), attempts, Integer.MAX_VALUE);
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getFailedAttempts()).isEqualTo(attempts);
+        assertThat(observed).containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(1, attempts).boxed().toList());
+    }
+
+    @Test
+    void reachingTheThresholdLocksTheAccount() throws Exception {
+        User user = saveUser("threshold@example.com");
+
+        incrementConcurrently(user.getId(), 20, 5);
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getFailedAttempts()).isEqualTo(20);
+        assertThat(stored.isLocked()).isTrue();
+        assertThat(stored.getLockTime()).isNotNull();
+    }
+
+    @Test
+    void unlockIgnoresAStaleLockTime() {
+        User user = saveUser("stale@example.com");
+        userRepository.incrementFailedAttempts(user.getId(), 1, new Date());
+        Date currentLockTime = userRepository.findById(user.getId()).orElseThrow().getLockTime();
+
+        assertThat(userRepository.unlock(user.getId(), new Date(currentLockTime.getTime() - 60_000), LocalDateTime.now())).isFalse();
+        assertThat(userRepository.unlock(user.getId(), currentLockTime, LocalDateTime.now())).isTrue();
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.isLocked()).isFalse();
+        assertThat(stored.getFailedAttempts()).isZero();
+    }
+
+    private User saveUser(String email) {
+        var user = new User();
+        user.setEmail(email);
+        user.setPassword("hash");
+        return userRepository.save(user);
+    }
+
+    private List<Integer> incrementConcurrently(String userId, int attempts, int maxFailedAttempts) throws Exception {
+        var start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userRepository.incrementFailedAttempts(userId, maxFailedAttempts, new Date());
+                }));
+            }
+            start.countDown();
+        }
+
+        List<Integer> observed = new ArrayList<>();
+        for (Future<Integer> result : results) {
+            observed.add(result.get());
+        }
+        return observed;
+    }
+}
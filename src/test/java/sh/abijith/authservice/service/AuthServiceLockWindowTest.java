@@ -0,0 +1,127 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.LoginLimiterProperties;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.exception.AccountLockedException;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.UserCredentials;
+import sh.abijith.authservice.repository.UserRepository;
+import sh.abijith.authservice.support.MutableClock;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.JwtService;
+import sh.abijith.authservice.util.TokenDenyList;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceLockWindowTest {
+    private static final String EMAIL = "locked@example.com";
+    private static final String PASSWORD = "password";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginAttemptLimiter loginAttemptLimiter;
+    private AuthService authService;
+    private Date lockTime;
+
+    @BeforeEach
+    void setUp() {
+        var loginSecurityProps = new LoginSecurityProperties();
+        loginSecurityProps.setLockDurationMinutes(15);
+        loginAttemptLimiter = new LoginAttemptLimiter(new LoginLimiterProperties(), loginSecurityProps,
+                userRepository, clock, meterRegistry);
+
+        authService = new AuthService(
+                userRepository,
+                passwordHashingService,
+                jwtService,
+                loginSecurityProps,
+                new UserMapper(),
+                loginAttemptLimiter,
+                refreshTokenService,
+                mock(TokenDenyList.class),
+                new JwtProperties(),
+                clock,
+                new AuthMetrics(meterRegistry));
+
+        lockTime = Date.from(clock.instant());
+        var credentials = new UserCredentials("user-id", EMAIL, "hash", Set.of(Role.USER), true, 5, true, lockTime);
+        when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(Optional.of(credentials));
+        when(passwordHashingService.matches(PASSWORD, "hash")).thenReturn(true);
+        when(jwtService.generateToken(anyString(), any())).thenReturn("access-token");
+        when(refreshTokenService.issue(EMAIL)).thenReturn("refresh-token");
+    }
+
+    @Test
+    void loginIsRejectedUntilTheLockDurationHasPassed() {
+        clock.advance(Duration.ofMinutes(15).minusSeconds(1));
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1"))
+                .isInstanceOf(AccountLockedException.class);
+        verify(userRepository, never()).unlock(anyString(), any(), any());
+        assertThat(stageCount("lock_check", "failure")).isEqualTo(1);
+        assertThat(stageCount("password_verify", "success")).isZero();
+    }
+
+    @Test
+    void loginUnlocksTheAccountOnceTheLockDurationHasPassed() {
+        clock.advance(Duration.ofMinutes(15));
+
+        var response = authService.login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1");
+
+        assertThat(response.getAccessToken()).isEqualTo("access-token");
+        verify(userRepository).unlock("user-id", lockTime, LocalDateTime.now(clock));
+        assertThat(stageCount("lock_check", "success")).isEqualTo(1);
+        assertThat(stageCount("token_mint", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void limiterMirrorsTheLockOnTheSameClock() {
+        clock.advance(Duration.ofMinutes(15).minusSeconds(1));
+        assertThatThrownBy(() -> authService.login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1"))
+                .isInstanceOf(AccountLockedException.class);
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1"))
+                .isInstanceOf(AccountLockedException.class);
+        assertThat(stageCount("limiter_check", "failure")).isEqualTo(1);
+        verify(userRepository, times(1)).findCredentialsByEmail(EMAIL);
+
+        clock.advance(Duration.ofSeconds(1));
+        var response = authService.login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1");
+
+        assertThat(response.getAccessToken()).isEqualTo("access-token");
+        verify(userRepository).unlock("user-id", lockTime, LocalDateTime.now(clock));
+    }
+
+    private long stageCount(String stage, String outcome) {
+        return meterRegistry.get("auth.stage")
+                .tags("operation", "login", "stage", stage, "outcome", outcome)
+                .timer()
+                .count();
+    }
+}
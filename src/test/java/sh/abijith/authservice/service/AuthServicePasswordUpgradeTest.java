@@ -0,0 +1,137 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.config.PasswordEncoderProperties;
+import sh.abijith.authservice.config.PasswordHashingProperties;
+import sh.abijith.authservice.config.SecurityConfig;
+import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.exception.ServiceBusyException;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.UserCredentials;
+import sh.abijith.authservice.repository.UserRepository;
+import sh.abijith.authservice.support.MutableClock;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.JwtService;
+import sh.abijith.authservice.util.TokenDenyList;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServicePasswordUpgradeTest {
+    private static final String EMAIL = "upgrade@example.com";
+    private static final String PASSWORD = "password";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void shutdown() {
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+    }
+
+    @Test
+    void pbkdf2HashIsRewrittenWithTheConfiguredAlgorithm() {
+        var pbkdf2Props = encoderProperties("pbkdf2");
+        pbkdf2Props.setPbkdf2Iterations(1000);
+        String stored = new SecurityConfig().passwordEncoder(pbkdf2Props).encode(PASSWORD);
+        assertThat(stored).startsWith("{pbkdf2}");
+
+        String rewritten = loginAndCaptureRewrite(stored);
+
+        assertThat(rewritten).startsWith("{bcrypt}");
+        assertThat(configuredEncoder().matches(PASSWORD, rewritten)).isTrue();
+    }
+
+    @Test
+    void legacyUnprefixedBcryptHashIsRewrittenWithTheConfiguredAlgorithm() {
+        String stored = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        assertThat(stored).startsWith("$2a$");
+
+        String rewritten = loginAndCaptureRewrite(stored);
+
+        assertThat(rewritten).startsWith("{bcrypt}");
+        assertThat(configuredEncoder().matches(PASSWORD, rewritten)).isTrue();
+    }
+
+    @Test
+    void rehashIsSkippedWhenTheHashingPoolIsSaturated() {
+        var hashing = mock(PasswordHashingService.class);
+        when(hashing.matches(PASSWORD, "$2a$04$legacy")).thenReturn(true);
+        when(hashing.upgradeEncoding("$2a$04$legacy")).thenReturn(true);
+        when(hashing.encode(PASSWORD)).thenThrow(new ServiceBusyException("busy", 1));
+        givenStoredHash("$2a$04$legacy");
+
+        var response = authService(hashing).login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1");
+
+        assertThat(response.getAccessToken()).isEqualTo("access-token");
+        verify(userRepository, never()).updatePassword(anyString(), anyString(), any());
+    }
+
+    private String loginAndCaptureRewrite(String stored) {
+        var hashingProps = new PasswordHashingProperties();
+        hashingProps.setPoolSize(1);
+        passwordHashingService = new PasswordHashingService(configuredEncoder(), hashingProps, new SimpleMeterRegistry());
+        givenStoredHash(stored);
+
+        authService(passwordHashingService).login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1");
+
+        var rewritten = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq("user-id"), rewritten.capture(), any());
+        return rewritten.getValue();
+    }
+
+    private void givenStoredHash(String stored) {
+        var credentials = new UserCredentials("user-id", EMAIL, stored, Set.of(Role.USER), true, 0, false, null);
+        when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(Optional.of(credentials));
+        when(jwtService.generateToken(anyString(), any())).thenReturn("access-token");
+        when(refreshTokenService.issue(EMAIL)).thenReturn("refresh-token");
+    }
+
+    private AuthService authService(PasswordHashingService hashing) {
+        return new AuthService(
+                userRepository,
+                hashing,
+                jwtService,
+                new LoginSecurityProperties(),
+                new UserMapper(),
+                mock(LoginAttemptLimiter.class),
+                refreshTokenService,
+                mock(TokenDenyList.class),
+                new JwtProperties(),
+                new MutableClock(Instant.parse("2025-01-01T00:00:00Z")),
+                new AuthMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static PasswordEncoder configuredEncoder() {
+        return new SecurityConfig().passwordEncoder(encoderProperties("bcrypt"));
+    }
+
+    private static PasswordEncoderProperties encoderProperties(String algorithm) {
+        var props = new PasswordEncoderProperties();
+        props.setAlgorithm(algorithm);
+        props.setBcryptStrength(4);
+        return props;
+    }
+}
@@ -0,0 +1,157 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sh.abijith.authservice.config.LoginLimiterProperties;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.exception.AccountLockedException;
+import sh.abijith.authservice.exception.TooManyAttemptsException;
+import sh.abijith.authservice.repository.UserRepository;
+import sh.abijith.authservice.support.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LoginAttemptLimiterTest {
+    private static final String EMAIL = "limited@example.com";
+    private static final String IP = "10.0.0.1";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginLimiterProperties limiterProps = new LoginLimiterProperties();
+    private final LoginSecurityProperties loginSecurityProps = new LoginSecurityProperties();
+
+    @BeforeEach
+    void setUp() {
+        loginSecurityProps.setMaxFailedAttempts(5);
+        loginSecurityProps.setLockDurationMinutes(1);
+        limiterProps.setWindowSeconds(300);
+    }
+
+    @Test
+    void emailIsLockedAtTheThresholdAndPersistedOnFlush() {
+        var limiter = limiter();
+        for (int i = 0; i < 4; i++) {
+            limiter.recordFailure(EMAIL, IP);
+        }
+        assertThatCode(() -> limiter.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+
+        limiter.recordFailure(EMAIL, IP);
+
+        assertThatThrownBy(() -> limiter.checkAllowed(EMAIL, IP)).isInstanceOf(AccountLockedException.class);
+        limiter.flushLocks();
+        verify(userRepository).lockByEmail(EMAIL, Date.from(clock.instant()));
+    }
+
+    @Test
+    void unknownEmailsAreLockedInMemoryOnly() {
+        var limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            limiter.recordUnknownEmail("nobody@example.com", IP);
+        }
+
+        assertThatThrownBy(() -> limiter.checkAllowed("nobody@example.com", IP)).isInstanceOf(AccountLockedException.class);
+        limiter.flushLocks();
+        verify(userRepository, never()).lockByEmail(anyString(), any());
+    }
+
+    @Test
+    void lockIsPersistedUnderTheStoredEmailWhateverTheCaseOfTheAttempts() {
+        var limiter = limiter();
+        for (int i = 0; i < 4; i++) {
+            limiter.recordUnknownEmail("Limited@Example.com", IP);
+        }
+
+        limiter.recordFailure(EMAIL, IP);
+
+        assertThatThrownBy(() -> limiter.checkAllowed("LIMITED@example.com", IP)).isInstanceOf(AccountLockedException.class);
+        limiter.flushLocks();
+        verify(userRepository).lockByEmail(EMAIL, Date.from(clock.instant()));
+        verify(userRepository, never()).lockByEmail(eq("Limited@Example.com"), any());
+    }
+
+    @Test
+    void disabledLimiterRecordsNothing() {
+        limiterProps.setEnabled(false);
+        var limiter = limiter();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.recordFailure(EMAIL, IP);
+        }
+        limiter.flushLocks();
+
+        assertThat(trackedKeys()).isZero();
+        verify(userRepository, never()).lockByEmail(anyString(), any());
+    }
+
+    @Test
+    void expiredLockStartsFromAnEmptyWindow() {
+        var limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure(EMAIL, null);
+        }
+        assertThatThrownBy(() -> limiter.checkAllowed(EMAIL, null)).isInstanceOf(AccountLockedException.class);
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThatCode(() -> limiter.checkAllowed(EMAIL, null)).doesNotThrowAnyException();
+
+        limiter.recordFailure(EMAIL, null);
+        assertThatCode(() -> limiter.checkAllowed(EMAIL, null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void sprayingEmailsDoesNotEvictTheIpThrottle() {
+        limiterProps.setShards(1);
+        limiterProps.setMaxKeysPerShard(64);
+        limiterProps.setMaxAttemptsPerIp(50);
+        var limiter = limiter();
+
+        for (int i = 0; i < 500; i++) {
+            clock.advance(Duration.ofMillis(1));
+            limiter.recordFailure("spray-" + i + "@example.com", IP);
+        }
+
+        assertThat(meterRegistry.get("auth.limiter.evictions").counter().count()).isPositive();
+        assertThat(trackedKeys()).isLessThanOrEqualTo(64);
+        assertThatThrownBy(() -> limiter.checkAllowed("next@example.com", IP))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    @Test
+    void idleKeysArePrunedButLocksAreKept() {
+        loginSecurityProps.setLockDurationMinutes(10);
+        var limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure(EMAIL, null);
+        }
+        limiter.recordFailure("idle@example.com", IP);
+
+        clock.advance(Duration.ofSeconds(301));
+        limiter.evictIdle();
+
+        assertThat(trackedKeys()).isEqualTo(1);
+        assertThatThrownBy(() -> limiter.checkAllowed(EMAIL, null)).isInstanceOf(AccountLockedException.class);
+    }
+
+    private LoginAttemptLimiter limiter() {
+        return new LoginAttemptLimiter(limiterProps, loginSecurityProps, userRepository,
+                clock, meterRegistry);
+    }
+
+    private double trackedKeys() {
+        return meterRegistry.find("auth.limiter.keys").gauges().stream().mapToDouble(g -> g.value()).sum();
+    }
+}
@@ -0,0 +1,96 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import sh.abijith.authservice.config.PasswordHashingProperties;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicBoolean interrupted = new AtomicBoolean();
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void cancellingAnAsyncHashInterruptsTheWorker() throws Exception {
+        service = service(1, 1);
+        blockUntilInterrupted();
+
+        var hash = service.encodeAsync("password");
+        started.await();
+        hash.cancel(true);
+
+        await().atMost(Duration.ofSeconds(5)).untilTrue(interrupted);
+        assertThat(hash).isCancelled();
+    }
+
+    @Test
+    void interruptingAWaitingCallerInterruptsTheWorker() throws Exception {
+        service = service(1, 1);
+        blockUntilInterrupted();
+
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                service.encode("password");
+            } catch (IllegalStateException expected) {
+                // interrupted while waiting
+            }
+        });
+        started.await();
+        caller.interrupt();
+        caller.join(5_000);
+
+        await().atMost(Duration.ofSeconds(5)).untilTrue(interrupted);
+    }
+
+    @Test
+    void cancellingAQueuedHashFreesItsSlot() throws Exception {
+        service = service(1, 1);
+        blockUntilInterrupted();
+
+        var running = service.encodeAsync("first");
+        started.await();
+        var queued = service.encodeAsync("second");
+        queued.cancel(true);
+
+        var next = service.encodeAsync("third");
+        assertThat(next).isNotCancelled();
+        running.cancel(true);
+        next.cancel(true);
+    }
+
+    private void blockUntilInterrupted() {
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return "hash";
+        });
+    }
+
+    private PasswordHashingService service(int poolSize, int queueCapacity) {
+        var props = new PasswordHashingProperties();
+        props.setPoolSize(poolSize);
+        props.setQueueCapacity(queueCapacity);
+        return new PasswordHashingService(passwordEncoder, props, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,155 @@
+package sh.abijith.authservice.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sh.abijith.authservice.dto.RegisterRequest;
+import sh.abijith.authservice.model.OutboxStatus;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.repository.UserRepository;
+import sh.abijith.authservice.support.UserServiceStub;
+import sh.abijith.authservice.support.UserServiceStub.Response;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.boot.admin.client.enabled=false",
+        "jwt.secret=test-secret-test-secret-test-secret-test",
+        "services.user.outbox.poll-interval-millis=100",
+        "services.user.outbox.initial-backoff-millis=100",
+        "services.user.outbox.max-attempts=3",
+        "services.user.client.read-timeout-millis=5000"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class ProfileOutboxDispatcherTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    static UserServiceStub userService = UserServiceStub.start();
+
+    @DynamicPropertySource
+    static void userServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("services.user.base-url", userService::baseUrl);
+    }
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CircuitBreaker userServiceCircuitBreaker;
+
+    @BeforeEach
+    void reset() {
+        userService.reset();
+        userServiceCircuitBreaker.reset();
+        userRepository.deleteAll();
+    }
+
+    @AfterAll
+    static void stopUserService() {
+        userService.stop();
+    }
+
+    @Test
+    void registrationDoesNotWaitForUserService() {
+        userService.respondWith(Response.delayed(201, 2000));
+
+        long start = System.nanoTime();
+        authService.register(registerRequest("slow@example.com"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(queuedProfiles()).isZero());
+        assertThat(userService.requests()).singleElement().asString().contains("slow@example.com");
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedUntilAcknowledged() {
+        userService.respondWith(Response.status(500), Response.status(503));
+
+        authService.register(registerRequest("retry@example.com"));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(userService.requests()).hasSize(3);
+            assertThat(queuedProfiles()).isZero();
+        });
+    }
+
+    @Test
+    void conflictMeansTheProfileAlreadyExists() {
+        userService.respondWith(Response.status(409));
+
+        authService.register(registerRequest("conflict@example.com"));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(queuedProfiles()).isZero());
+        assertThat(userService.requests()).hasSize(1);
+    }
+
+    @Test
+    void entryIsMarkedFailedAfterMaxAttempts() {
+        userService.respondWith(Response.status(500), Response.status(500), Response.status(500));
+
+        authService.register(registerRequest("down@example.com"));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(userRepository.findAll()).singleElement()
+                        .satisfies(user -> assertThat(user.getProfileOutbox().getStatus()).isEqualTo(OutboxStatus.FAILED)));
+        assertThat(userService.requests()).hasSize(3);
+    }
+
+    @Test
+    void pollsAreSkippedWhileTheBreakerIsOpen() {
+        userServiceCircuitBreaker.transitionToOpenState();
+
+        authService.register(registerRequest("open@example.com"));
+
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(userRepository.findByEmail("open@example.com").orElseThrow().getProfileOutbox().getAttempts())
+                        .isZero());
+        assertThat(userService.requests()).isEmpty();
+
+        userServiceCircuitBreaker.transitionToClosedState();
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(queuedProfiles()).isZero());
+        assertThat(userService.requests()).hasSize(1);
+    }
+
+    @Test
+    void registrationQueuesTheProfileInTheUserDocument() {
+        userService.respondWith(Response.delayed(201, 1000));
+
+        authService.register(registerRequest("atomic@example.com"));
+
+        User user = userRepository.findByEmail("atomic@example.com").orElseThrow();
+        assertThat(user.getProfileOutbox().getProfile().getUserId()).isEqualTo(user.getId());
+        assertThat(user.getProfileOutbox().getProfile().getFirstName()).isEqualTo("Ada");
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(queuedProfiles()).isZero());
+    }
+
+    private long queuedProfiles() {
+        return userRepository.findAll().stream().filter(user -> user.getProfileOutbox() != null).count();
+    }
+
+    private static RegisterRequest registerRequest(String email) {
+        return new RegisterRequest(email, "password", "Ada", "Lovelace", Set.of(Role.USER));
+    }
+}
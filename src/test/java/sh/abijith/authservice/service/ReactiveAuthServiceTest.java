@@ -0,0 +1,157 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import sh.abijith.authservice.config.LoginSecurityProperties;
+import sh.abijith.authservice.dto.LoginRequest;
+import sh.abijith.authservice.dto.RegisterRequest;
+import sh.abijith.authservice.exception.AccountLockedException;
+import sh.abijith.authservice.exception.InvalidCredentialsException;
+import sh.abijith.authservice.exception.UserAlreadyExistsException;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.model.UserCredentials;
+import sh.abijith.authservice.repository.ReactiveUserRepository;
+import sh.abijith.authservice.support.MutableClock;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.JwtService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveAuthServiceTest {
+    private static final String EMAIL = "reactive@example.com";
+    private static final String PASSWORD = "password";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final LoginAttemptLimiter loginAttemptLimiter = mock(LoginAttemptLimiter.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveAuthService authService;
+    private Date lockTime;
+
+    @BeforeEach
+    void setUp() {
+        var loginSecurityProps = new LoginSecurityProperties();
+        loginSecurityProps.setLockDurationMinutes(15);
+
+        authService = new ReactiveAuthService(
+                userRepository,
+                passwordHashingService,
+                jwtService,
+                loginSecurityProps,
+                new UserMapper(),
+                loginAttemptLimiter,
+                refreshTokenService,
+                mock(AuthService.class),
+                clock,
+                new AuthMetrics(meterRegistry));
+
+        lockTime = Date.from(clock.instant());
+        var credentials = new UserCredentials("user-id", EMAIL, "hash", Set.of(Role.USER), true, 5, true, lockTime);
+        when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(Mono.just(credentials));
+        when(userRepository.unlock(eq("user-id"), eq(lockTime), any())).thenReturn(Mono.just(true));
+        when(passwordHashingService.matchesAsync(PASSWORD, "hash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(jwtService.generateToken(anyString(), any())).thenReturn("access-token");
+        when(refreshTokenService.issue(EMAIL)).thenReturn("refresh-token");
+    }
+
+    @Test
+    void registerMapsADuplicateEmailToUserAlreadyExists() {
+        when(passwordHashingService.encodeAsync(PASSWORD)).thenReturn(CompletableFuture.completedFuture("hash"));
+        when(userRepository.insert(any(User.class))).thenReturn(Mono.error(new DuplicateKeyException("email")));
+
+        StepVerifier.create(authService.register(new RegisterRequest(EMAIL, PASSWORD, "Re", "Active", Set.of(Role.USER))))
+                .expectError(UserAlreadyExistsException.class)
+                .verify();
+        assertThat(stageCount("register", "password_hash", "success")).isEqualTo(1);
+        assertThat(stageCount("register", "save", "failure")).isEqualTo(1);
+    }
+
+    @Test
+    void registerRecordsItsStages() {
+        when(passwordHashingService.encodeAsync(PASSWORD)).thenReturn(CompletableFuture.completedFuture("hash"));
+        when(userRepository.insert(any(User.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(authService.register(new RegisterRequest(EMAIL, PASSWORD, "Re", "Active", Set.of(Role.USER))))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(stageCount("register", "password_hash", "success")).isEqualTo(1);
+        assertThat(stageCount("register", "save", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoginRecordsTheFailingStage() {
+        when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(Mono.just(
+                new UserCredentials("user-id", EMAIL, "hash", Set.of(Role.USER), true, 0, false, null)));
+        when(passwordHashingService.matchesAsync("wrong", "hash")).thenReturn(CompletableFuture.completedFuture(false));
+        when(loginAttemptLimiter.isEnabled()).thenReturn(true);
+
+        StepVerifier.create(authService.login(new LoginRequest(EMAIL, "wrong"), "127.0.0.1"))
+                .expectError(InvalidCredentialsException.class)
+                .verify();
+        assertThat(stageCount("login", "limiter_check", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "user_lookup", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "password_verify", "failure")).isEqualTo(1);
+        assertThat(stageCount("login", "lockout_write", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "token_mint", "success")).isZero();
+    }
+
+    @Test
+    void loginIsRejectedUntilTheLockDurationHasPassed() {
+        clock.advance(Duration.ofMinutes(15).minusSeconds(1));
+
+        StepVerifier.create(authService.login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1"))
+                .expectError(AccountLockedException.class)
+                .verify();
+        verify(loginAttemptLimiter).lock(EMAIL, lockTime);
+        verify(passwordHashingService, never()).matchesAsync(any(), any());
+        assertThat(stageCount("login", "lock_check", "failure")).isEqualTo(1);
+    }
+
+    @Test
+    void loginUnlocksTheAccountOnceTheLockDurationHasPassed() {
+        clock.advance(Duration.ofMinutes(15));
+
+        StepVerifier.create(authService.login(new LoginRequest(EMAIL, PASSWORD), "127.0.0.1"))
+                .expectNextMatches(response -> response.getAccessToken().equals("access-token")
+                        && response.getRefreshToken().equals("refresh-token"))
+                .verifyComplete();
+        verify(userRepository).unlock("user-id", lockTime, LocalDateTime.now(clock));
+        assertThat(stageCount("login", "limiter_check", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "user_lookup", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "lock_check", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "password_verify", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "success_write", "success")).isEqualTo(1);
+        assertThat(stageCount("login", "token_mint", "success")).isEqualTo(1);
+    }
+
+    private long stageCount(String operation, String stage, String outcome) {
+        return meterRegistry.get("auth.stage")
+                .tags("operation", operation, "stage", stage, "outcome", outcome)
+                .timer()
+                .count();
+    }
+}
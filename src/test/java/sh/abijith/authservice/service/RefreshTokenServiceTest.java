@@ -0,0 +1,184 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sh.abijith.authservice.config.JwtCacheProperties;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.config.RefreshTokenProperties;
+import sh.abijith.authservice.config.TokenRevocationProperties;
+import sh.abijith.authservice.config.TokenValidationProperties;
+import sh.abijith.authservice.exception.InvalidRefreshTokenException;
+import sh.abijith.authservice.repository.RefreshTokenRepository;
+import sh.abijith.authservice.repository.RevokedRefreshFamilyRepository;
+import sh.abijith.authservice.repository.SigningKeyRepository;
+import sh.abijith.authservice.repository.TokenRevocationRepository;
+import sh.abijith.authservice.support.MutableClock;
+import sh.abijith.authservice.util.AuthMetrics;
+import sh.abijith.authservice.util.DisabledIntrospectionCache;
+import sh.abijith.authservice.util.JwtService;
+import sh.abijith.authservice.util.SigningKeyRing;
+import sh.abijith.authservice.util.TokenDenyList;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+class RefreshTokenServiceTest {
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedRefreshFamilyRepository revokedFamilyRepository;
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final JwtProperties jwtProperties = new JwtProperties();
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        revokedFamilyRepository.deleteAll();
+        jwtProperties.setRefreshTokenTtl(Duration.ofDays(7));
+
+        var signingKeyRing = new SigningKeyRing(new JwtSigningProperties(), mock(SigningKeyRepository.class), clock);
+        ReflectionTestUtils.setField(signingKeyRing, "secret", SECRET);
+        signingKeyRing.init();
+
+        var tokenDenyList = new TokenDenyList(mock(TokenRevocationRepository.class),
+                new TokenRevocationProperties(), clock, new SimpleMeterRegistry());
+        jwtService = new JwtService(jwtProperties, new JwtCacheProperties(), new TokenValidationProperties(),
+                signingKeyRing, tokenDenyList, new DisabledIntrospectionCache(),
+                new AuthMetrics(new SimpleMeterRegistry()), new SimpleMeterRegistry(), clock);
+        jwtService.init();
+    }
+
+    @AfterEach
+    void shutdown() {
+        jwtService.shutdown();
+    }
+
+    @Test
+    void aRefreshTokenCanBeUsedOnlyOnce() {
+        var service = instance(new SimpleMeterRegistry());
+        String token = service.issue("single@example.com");
+
+        var rotated = service.rotate(token);
+
+        assertThat(rotated.subject()).isEqualTo("single@example.com");
+        assertThat(rotated.refreshToken()).isNotEqualTo(token);
+        assertThatThrownBy(() -> service.rotate(token))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has already been used");
+    }
+
+    @Test
+    void concurrentRotationsOfOneTokenHaveASingleWinner() throws Exception {
+        var service = instance(new SimpleMeterRegistry());
+        String token = service.issue("double-spend@example.com");
+        int attempts = 16;
+
+        var start = new CountDownLatch(1);
+        List<Future<RefreshTokenService.RotatedRefreshToken>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(attempts)) {
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.rotate(token);
+                }));
+            }
+            start.countDown();
+        }
+
+        List<RefreshTokenService.RotatedRefreshToken> winners = new ArrayList<>();
+        int rejected = 0;
+        for (var result : results) {
+            try {
+                winners.add(result.get());
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(InvalidRefreshTokenException.class);
+                rejected++;
+            }
+        }
+        assertThat(winners).hasSize(1);
+        assertThat(rejected).isEqualTo(attempts - 1);
+        assertThatThrownBy(() -> service.rotate(winners.get(0).refreshToken()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void reusingAConsumedTokenRevokesTheWholeFamily() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var service = instance(meterRegistry);
+        String first = service.issue("family@example.com");
+        String second = service.rotate(first).refreshToken();
+        String third = service.rotate(second).refreshToken();
+        String unrelated = service.issue("family@example.com");
+
+        assertThatThrownBy(() -> service.rotate(first))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has already been used");
+
+        assertThatThrownBy(() -> service.rotate(third))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has been revoked");
+        assertThat(meterRegistry.get("auth.refresh.reuse.detected").counter().count()).isEqualTo(1);
+        assertThat(service.rotate(unrelated).subject()).isEqualTo("family@example.com");
+    }
+
+    @Test
+    void aFamilyRevokedOnOneInstanceIsRejectedOnAnotherAfterSync() {
+        var first = instance(new SimpleMeterRegistry());
+        var otherMeterRegistry = new SimpleMeterRegistry();
+        var other = instance(otherMeterRegistry);
+        String token = first.rotate(first.issue("sync@example.com")).refreshToken();
+
+        clock.advance(Duration.ofSeconds(1));
+        first.revoke(token, "sync@example.com");
+        clock.advance(Duration.ofSeconds(1));
+        other.syncRevocations();
+
+        assertThatThrownBy(() -> other.rotate(token))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has been revoked");
+        assertThat(otherMeterRegistry.get("auth.refresh.revoked.families").gauge().value()).isEqualTo(1);
+        assertThat(otherMeterRegistry.get("auth.refresh.revoked.rejected").counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * One service instance; instances share the database but keep their own revoked-family set.
+     */
+    private RefreshTokenService instance(SimpleMeterRegistry meterRegistry) {
+        var service = new RefreshTokenService(refreshTokenRepository, revokedFamilyRepository, jwtService,
+                new RefreshTokenProperties(), jwtProperties, meterRegistry, clock);
+        service.init();
+        return service;
+    }
+}
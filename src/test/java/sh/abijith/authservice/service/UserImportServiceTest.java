@@ -0,0 +1,135 @@
+package sh.abijith.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sh.abijith.authservice.config.UserImportProperties;
+import sh.abijith.authservice.dto.UserImportError;
+import sh.abijith.authservice.dto.UserImportResponse;
+import sh.abijith.authservice.mapper.UserMapper;
+import sh.abijith.authservice.model.ProfileOutboxEntry;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.User;
+import sh.abijith.authservice.service.UserImportService.Format;
+import sh.abijith.authservice.util.AuthMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+class UserImportServiceTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.indexOps(User.class).ensureIndex(new Index().on("email", Sort.Direction.ASC).unique().named("email"));
+
+        var importProps = new UserImportProperties();
+        importProps.setBatchSize(3);
+        importProps.setHashingParallelism(2);
+
+        var meterRegistry = new SimpleMeterRegistry();
+        userImportService = new UserImportService(mongoTemplate, passwordEncoder, importProps, new UserMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), Jackson2ObjectMapperBuilder.json().build(),
+                new AuthMetrics(meterRegistry), Clock.systemUTC(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+        mongoTemplate.remove(new Query(), User.class);
+    }
+
+    @Test
+    void importsNdjsonAndReportsEachRejectedLine() {
+        var existing = new User();
+        existing.setEmail("existing@example.com");
+        existing.setPassword("hash");
+        mongoTemplate.insert(existing);
+
+        UserImportResponse response = importUsers(Format.NDJSON, """
+                {"email":"a@example.com","password":"secret-a","firstName":"A","lastName":"One","roles":["USER"]}
+                {"email":"existing@example.com","password":"secret","firstName":"E","lastName":"Xisting"}
+
+                not json
+                {"email":"b@example.com","password":"secret-b","firstName":"B","lastName":"Two"}
+                {"email":"a@example.com","password":"again","firstName":"A","lastName":"Again"}
+                {"email":"c@example.com","firstName":"C","lastName":"Three"}
+                {"email":"d@example.com","passwordHash":"{bcrypt}%s","firstName":"D","lastName":"Four"}
+                """.formatted(passwordEncoder.encode("secret-d")));
+
+        assertThat(response.getReceived()).isEqualTo(7);
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.isErrorsTruncated()).isFalse();
+        assertThat(response.getErrors()).extracting(UserImportError::getLine).containsExactlyInAnyOrder(2L, 4L, 6L, 7L);
+        assertThat(response.getErrors()).filteredOn(error -> error.getLine() == 6)
+                .extracting(UserImportError::getError)
+                .containsExactly("User with this email already exists");
+
+        User a = mongoTemplate.findOne(query(where("email").is("a@example.com")), User.class);
+        assertThat(passwordEncoder.matches("secret-a", a.getPassword())).isTrue();
+        assertThat(a.getRoles()).containsExactly(Role.USER);
+        User d = mongoTemplate.findOne(query(where("email").is("d@example.com")), User.class);
+        assertThat(d.getPassword()).startsWith("{bcrypt}");
+
+        assertThat(mongoTemplate.findAll(User.class))
+                .filteredOn(user -> user.getProfileOutbox() != null)
+                .extracting(user -> user.getProfileOutbox().getProfile().getEmail())
+                .containsExactlyInAnyOrder("a@example.com", "b@example.com", "d@example.com");
+    }
+
+    @Test
+    void importsCsvWithQuotedFieldsAndRoles() {
+        UserImportResponse response = importUsers(Format.CSV, """
+                email,firstName,lastName,password,roles
+                csv@example.com,"Smith, Jr.","O""Brien",secret,USER|ADMIN
+                bad-email,X,Y,secret,USER
+                role@example.com,R,S,secret,OWNER
+                """);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(UserImportError::getLine).containsExactly(3L, 4L);
+
+        User user = mongoTemplate.findOne(query(where("email").is("csv@example.com")), User.class);
+        assertThat(user.getRoles()).isEqualTo(Set.of(Role.USER, Role.ADMIN));
+        ProfileOutboxEntry entry = user.getProfileOutbox();
+        assertThat(entry.getProfile().getFirstName()).isEqualTo("Smith, Jr.");
+        assertThat(entry.getProfile().getLastName()).isEqualTo("O\"Brien");
+    }
+
+    private UserImportResponse importUsers(Format format, String body) {
+        return userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
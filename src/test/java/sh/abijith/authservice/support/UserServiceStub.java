@@ -0,0 +1,90 @@
+package sh.abijith.authservice.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP stand-in for user-service. Answers {@code POST /users} with 201 unless scripted
+ * responses are queued with {@link #respondWith(Response...)}, and records every request body.
+ */
+public final class UserServiceStub {
+    private final HttpServer server;
+    private final Queue<Response> scripted = new ConcurrentLinkedQueue<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private UserServiceStub(HttpServer server) {
+        this.server = server;
+    }
+
+    public static UserServiceStub start() {
+        try {
+            var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            var stub = new UserServiceStub(server);
+            server.createContext("/users", stub::handle);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void respondWith(Response... responses) {
+        scripted.addAll(List.of(responses));
+    }
+
+    public List<String> requests() {
+        return requests;
+    }
+
+    public void reset() {
+        scripted.clear();
+        requests.clear();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        Response response = scripted.poll();
+        if (response == null) {
+            response = Response.status(201);
+        }
+        if (response.delayMillis() > 0) {
+            try {
+                Thread.sleep(response.delayMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.sendResponseHeaders(response.status(), -1);
+        exchange.close();
+    }
+
+    public record Response(int status, long delayMillis) {
+
+        public static Response status(int status) {
+            return new Response(status, 0);
+        }
+
+        public static Response delayed(int status, long delayMillis) {
+            return new Response(status, delayMillis);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package sh.abijith.authservice.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import sh.abijith.authservice.config.JwtCacheProperties;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.config.TokenRevocationProperties;
+import sh.abijith.authservice.config.TokenValidationProperties;
+import sh.abijith.authservice.dto.TokenValidationResult;
+import sh.abijith.authservice.exception.InvalidTokenException;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.repository.SigningKeyRepository;
+import sh.abijith.authservice.repository.TokenRevocationRepository;
+import sh.abijith.authservice.support.MutableClock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class JwtServiceTest {
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final JwtProperties jwtProperties = new JwtProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenDenyList tokenDenyList;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties.setAccessTokenTtl(Duration.ofMinutes(15));
+        jwtProperties.setClockSkew(Duration.ofSeconds(30));
+
+        var signingKeyRing = new SigningKeyRing(new JwtSigningProperties(), mock(SigningKeyRepository.class), clock);
+        ReflectionTestUtils.setField(signingKeyRing, "secret", SECRET);
+        signingKeyRing.init();
+
+        tokenDenyList = new TokenDenyList(mock(TokenRevocationRepository.class),
+                new TokenRevocationProperties(), clock, meterRegistry);
+
+        jwtService = new JwtService(jwtProperties, new JwtCacheProperties(), new TokenValidationProperties(),
+                signingKeyRing, tokenDenyList, new DisabledIntrospectionCache(),
+                new AuthMetrics(new SimpleMeterRegistry()), meterRegistry, clock);
+        jwtService.init();
+    }
+
+    @Test
+    void everyRoleCombinationSurvivesARoundTrip() {
+        for (Set<Role> roles : allRoleCombinations()) {
+            String token = jwtService.generateToken("round-trip@example.com", roles);
+
+            assertThat(jwtService.extractRoles(token)).isEqualTo(roles);
+            assertThat(jwtService.validateToken(token).getRoles()).isEqualTo(roles);
+        }
+    }
+
+    @Test
+    void roleMaskDecodesToSharedImmutableSets() {
+        for (Set<Role> roles : allRoleCombinations()) {
+            int mask = RoleMask.encode(roles);
+
+            assertThat(RoleMask.decode(mask)).isEqualTo(roles);
+            assertThat(RoleMask.decode(mask)).isSameAs(RoleMask.decode(mask));
+        }
+        assertThat(RoleMask.encode(null)).isZero();
+    }
+
+    @Test
+    void tokensWithoutTheRolesClaimHaveNoRoles() {
+        String token = Jwts.builder()
+                .setSubject("legacy@example.com")
+                .claim("role", "USER,ADMIN")
+                .setExpiration(new Date(clock.millis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtService.extractRoles(token)).isEmpty();
+    }
+
+    @Test
+    void accessTokensExpireAfterTheConfiguredTtlPlusSkew() {
+        String token = jwtService.generateToken("expiry@example.com", EnumSet.of(Role.USER));
+        assertThat(jwtService.validateToken(token).getExpiresAt().toInstant())
+                .isEqualTo(clock.instant().plus(Duration.ofMinutes(15)));
+
+        clock.advance(Duration.ofMinutes(15).plusSeconds(29));
+        assertThat(jwtService.validateToken(token).isValid()).isTrue();
+
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(jwtService.validateToken(token).getError()).isEqualTo("Token is expired");
+        assertThatThrownBy(() -> jwtService.parseOnce(token))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token is expired");
+    }
+
+    @Test
+    void rejectionsCarryNoStackTrace() {
+        assertThat(jwtService.validateToken("not-a-jwt").getError())
+                .isEqualTo("Invalid token: JWT strings must contain exactly 2 period characters. Found: 0");
+        assertThat(jwtService.validateToken(" ").getError()).isEqualTo("Token is missing");
+
+        assertThatThrownBy(() -> jwtService.parseOnce("forged.token.value"))
+                .isInstanceOf(InvalidTokenException.class)
+                .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+    }
+
+    @Test
+    void rejectedTokensAreCachedApartFromValidOnes() {
+        String token = jwtService.generateToken("valid@example.com", EnumSet.of(Role.USER));
+        jwtService.validateToken(token);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(jwtService.validateToken("forged.token." + i).isValid()).isFalse();
+        }
+        assertThat(jwtService.validateToken("forged.token.0").isValid()).isFalse();
+        assertThat(jwtService.validateToken(token).isValid()).isTrue();
+
+        assertThat(cacheHits("jwt.claims")).isEqualTo(1);
+        assertThat(cacheHits("jwt.rejections")).isEqualTo(1);
+    }
+
+    @AfterEach
+    void shutdown() {
+        jwtService.shutdown();
+    }
+
+    @Test
+    void largeBatchesAreVerifiedInRequestOrder() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tokens.add(i % 3 == 0 ? "not-a-token" : jwtService.generateToken("batch-" + i + "@example.com", EnumSet.of(Role.USER)));
+        }
+
+        List<TokenValidationResult> results = jwtService.validateTokens(tokens);
+
+        assertThat(results).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            if (i % 3 == 0) {
+                assertThat(results.get(i).isValid()).isFalse();
+            } else {
+                assertThat(results.get(i).getSubject()).isEqualTo("batch-" + i + "@example.com");
+            }
+        }
+    }
+
+    @Test
+    void refreshTokensAreNotAcceptedAsAccessTokens() {
+        String refreshToken = jwtService.generateRefreshToken("refresh@example.com", "refresh-id", "family-id",
+                new Date(clock.millis() + 60_000));
+
+        assertThat(jwtService.validateToken(refreshToken).getError())
+                .isEqualTo("Invalid token: refresh tokens are not access tokens");
+        assertThatThrownBy(() -> jwtService.parseOnce(refreshToken)).isInstanceOf(InvalidTokenException.class);
+        assertThat(jwtService.parseRefreshToken(refreshToken).familyId()).isEqualTo("family-id");
+    }
+
+    @Test
+    void revokedTokenIdIsRejectedWithoutAffectingOtherTokens() {
+        String revoked = jwtService.generateToken("jti@example.com", EnumSet.of(Role.USER));
+        String other = jwtService.generateToken("jti@example.com", EnumSet.of(Role.USER));
+        assertThat(jwtService.validateToken(revoked).isValid()).isTrue();
+
+        TokenClaims claims = jwtService.parseOnce(revoked);
+        tokenDenyList.revokeToken(claims.getTokenId(), claims.getSubject(), claims.getExpiration());
+
+        assertThat(jwtService.validateToken(revoked).getError()).isEqualTo("Token has been revoked");
+        assertThat(jwtService.validateToken(other).isValid()).isTrue();
+    }
+
+    @Test
+    void subjectCutoffRevokesEarlierTokensOnly() {
+        String earlier = jwtService.generateToken("cutoff@example.com", EnumSet.of(Role.USER));
+        String otherSubject = jwtService.generateToken("other@example.com", EnumSet.of(Role.USER));
+
+        clock.advance(Duration.ofSeconds(2));
+        tokenDenyList.revokeSubject("cutoff@example.com", new Date(clock.millis()), Duration.ofMinutes(15).toMillis());
+        clock.advance(Duration.ofSeconds(1));
+        String later = jwtService.generateToken("cutoff@example.com", EnumSet.of(Role.USER));
+
+        assertThat(jwtService.validateToken(earlier).getError()).isEqualTo("Token has been revoked");
+        assertThat(jwtService.validateToken(otherSubject).isValid()).isTrue();
+        assertThat(jwtService.validateToken(later).isValid()).isTrue();
+    }
+
+    @Test
+    void tokenIssuedInTheSameSecondAfterLogoutAllIsAccepted() {
+        clock.advance(Duration.ofMillis(200));
+        String before = jwtService.generateToken("same-second@example.com", EnumSet.of(Role.USER));
+
+        clock.advance(Duration.ofMillis(300));
+        tokenDenyList.revokeSubject("same-second@example.com", new Date(clock.millis()), Duration.ofMinutes(15).toMillis());
+        clock.advance(Duration.ofMillis(300));
+        String after = jwtService.generateToken("same-second@example.com", EnumSet.of(Role.USER));
+
+        assertThat(jwtService.validateToken(before).getError()).isEqualTo("Token has been revoked");
+        assertThat(jwtService.validateToken(after).isValid()).isTrue();
+        assertThat(jwtService.validateToken(after).getExpiresAt().toInstant())
+                .isEqualTo(clock.instant().plus(Duration.ofMinutes(15)).truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void revocationsArePrunedOnceTheirTokensHaveExpired() {
+        String token = jwtService.generateToken("prune@example.com", EnumSet.of(Role.USER));
+        TokenClaims claims = jwtService.parseOnce(token);
+        tokenDenyList.revokeToken(claims.getTokenId(), claims.getSubject(), claims.getExpiration());
+        tokenDenyList.revokeSubject("prune@example.com", new Date(clock.millis()), Duration.ofMinutes(15).toMillis());
+        assertThat(gauge("auth.revocation.tokens")).isEqualTo(1);
+        assertThat(gauge("auth.revocation.subjects")).isEqualTo(1);
+
+        clock.advance(Duration.ofMinutes(15));
+        tokenDenyList.sync();
+        assertThat(gauge("auth.revocation.tokens")).isZero();
+        assertThat(gauge("auth.revocation.subjects")).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(1));
+        tokenDenyList.sync();
+        assertThat(gauge("auth.revocation.subjects")).isZero();
+    }
+
+    private double cacheHits(String cache) {
+        return meterRegistry.get("cache.gets").tags("cache", cache, "result", "hit").functionCounter().count();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static List<Set<Role>> allRoleCombinations() {
+        Role[] values = Role.values();
+        List<Set<Role>> combinations = new ArrayList<>();
+        for (int mask = 0; mask < 1 << values.length; mask++) {
+            EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+            for (Role role : values) {
+                if ((mask & (1 << role.ordinal())) != 0) {
+                    roles.add(role);
+                }
+            }
+            combinations.add(roles);
+        }
+        return combinations;
+    }
+}
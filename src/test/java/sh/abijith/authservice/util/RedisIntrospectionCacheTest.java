@@ -0,0 +1,184 @@
+package sh.abijith.authservice.util;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sh.abijith.authservice.config.SharedIntrospectionCacheProperties;
+import sh.abijith.authservice.model.Role;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@Testcontainers(disabledWithoutDocker = true)
+class RedisIntrospectionCacheTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    private String keyPrefix;
+    private RedisIntrospectionCache first;
+    private RedisIntrospectionCache second;
+
+    @BeforeEach
+    void connect() {
+        keyPrefix = "test:" + System.nanoTime() + ":";
+        first = connect(keyPrefix);
+        second = connect(keyPrefix);
+    }
+
+    @AfterEach
+    void close() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void claimsWrittenByOneInstanceAreReadByAnother() {
+        var claims = new TokenClaims("jti-1", "odd|subject@example.com", EnumSet.of(Role.USER, Role.ADMIN),
+                new Date(1_000_000), new Date(2_000_000));
+
+        first.put("digest-1", claims, 60_000);
+
+        TokenClaims shared = second.get("digest-1");
+        assertThat(shared).usingRecursiveComparison().isEqualTo(claims);
+        assertThat(second.get("digest-2")).isNull();
+    }
+
+    @Test
+    void entriesExpireWithTheirTtl() {
+        first.put("short-lived", claims(), 200);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> second.get("short-lived") == null);
+    }
+
+    @Test
+    void invalidationsReachEveryInstance() {
+        List<String> seenByFirst = new CopyOnWriteArrayList<>();
+        List<String> seenBySecond = new CopyOnWriteArrayList<>();
+        first.onInvalidation(seenByFirst::add);
+        second.onInvalidation(seenBySecond::add);
+        first.put("revoked", claims(), 60_000);
+
+        first.invalidate("revoked");
+
+        assertThat(second.get("revoked")).isNull();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(seenByFirst).containsExactly("revoked");
+            assertThat(seenBySecond).containsExactly("revoked");
+        });
+    }
+
+    @Test
+    void anUnreachableBackendIsAMiss() {
+        redis.getDockerClient().pauseContainerCmd(redis.getContainerId()).exec();
+        try {
+            first.put("unreachable", claims(), 60_000);
+            assertThat(first.get("unreachable")).isNull();
+        } finally {
+            redis.getDockerClient().unpauseContainerCmd(redis.getContainerId()).exec();
+        }
+    }
+
+    @Test
+    void tamperedEntriesAreRejected() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var reader = cache(redisUri(), keyPrefix, "", meterRegistry);
+        awaitConnected(reader);
+        first.put("tampered", claims(), 60_000);
+        first.put("original", claims(), 60_000);
+
+        RedisClient client = RedisClient.create(redisUri());
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            RedisCommands<String, String> commands = connection.sync();
+            String entry = commands.get(keyPrefix + "tampered");
+            String elevated = entry.replace("|" + RoleMask.encode(EnumSet.of(Role.USER)) + "|",
+                    "|" + RoleMask.encode(EnumSet.of(Role.USER, Role.ADMIN)) + "|");
+            commands.set(keyPrefix + "tampered", elevated);
+            commands.set(keyPrefix + "moved", commands.get(keyPrefix + "original"));
+            commands.set(keyPrefix + "forged", "forged|jti|3|0|0|forged@example.com");
+        } finally {
+            client.shutdown();
+        }
+
+        assertThat(reader.get("tampered")).isNull();
+        assertThat(reader.get("moved")).isNull();
+        assertThat(reader.get("forged")).isNull();
+        assertThat(reader.get("original")).isNotNull();
+        assertThat(meterRegistry.get("jwt.shared.cache.rejected").counter().count()).isEqualTo(3);
+        reader.close();
+    }
+
+    @Test
+    void entriesWrittenWithAnotherKeyAreRejected() {
+        var stranger = cache(redisUri(), keyPrefix, "another-hmac-key", new SimpleMeterRegistry());
+        awaitConnected(stranger);
+
+        stranger.put("foreign", claims(), 60_000);
+
+        assertThat(stranger.get("foreign")).isNotNull();
+        assertThat(first.get("foreign")).isNull();
+        stranger.close();
+    }
+
+    @Test
+    void startsWhileRedisIsDown() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var cache = cache("redis://127.0.0.1:1", keyPrefix, "", meterRegistry);
+        List<String> invalidated = new CopyOnWriteArrayList<>();
+        cache.onInvalidation(invalidated::add);
+
+        cache.put("down", claims(), 60_000);
+        assertThat(cache.get("down")).isNull();
+        cache.invalidate("down");
+
+        assertThat(invalidated).containsExactly("down");
+        assertThat(meterRegistry.get("jwt.shared.cache.errors").counter().count()).isPositive();
+        cache.close();
+    }
+
+    private RedisIntrospectionCache connect(String keyPrefix) {
+        RedisIntrospectionCache cache = cache(redisUri(), keyPrefix, "", new SimpleMeterRegistry());
+        awaitConnected(cache);
+        return cache;
+    }
+
+    private static RedisIntrospectionCache cache(String redisUri, String keyPrefix, String hmacKey,
+                                                 SimpleMeterRegistry meterRegistry) {
+        var props = new SharedIntrospectionCacheProperties();
+        props.setRedisUri(redisUri);
+        props.setKeyPrefix(keyPrefix);
+        props.setTimeoutMillis(500);
+        props.setHmacKey(hmacKey);
+        return new RedisIntrospectionCache(props, SECRET, meterRegistry);
+    }
+
+    private static void awaitConnected(RedisIntrospectionCache cache) {
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            cache.put("connected", claims(), 1_000);
+            return cache.get("connected") != null;
+        });
+    }
+
+    private static String redisUri() {
+        return "redis://" + redis.getHost() + ":" + redis.getMappedPort(6379);
+    }
+
+    private static TokenClaims claims() {
+        return new TokenClaims("jti", "claims@example.com", EnumSet.of(Role.USER), new Date(), new Date());
+    }
+}
@@ -0,0 +1,125 @@
+package sh.abijith.authservice.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import sh.abijith.authservice.config.JwtCacheProperties;
+import sh.abijith.authservice.config.JwtProperties;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.config.SharedIntrospectionCacheProperties;
+import sh.abijith.authservice.config.TokenRevocationProperties;
+import sh.abijith.authservice.config.TokenValidationProperties;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.repository.SigningKeyRepository;
+import sh.abijith.authservice.repository.TokenRevocationRepository;
+import sh.abijith.authservice.support.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Several {@link JwtService} replicas sharing one {@link InProcessIntrospectionCache}, the way
+ * instances behind the same Redis share {@link RedisIntrospectionCache}.
+ */
+class SharedIntrospectionCacheTest {
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final JwtProperties jwtProperties = new JwtProperties();
+    private SigningKeyRing signingKeyRing;
+    private TokenDenyList tokenDenyList;
+    private InProcessIntrospectionCache sharedCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties.setAccessTokenTtl(Duration.ofMinutes(15));
+        jwtProperties.setClockSkew(Duration.ofSeconds(30));
+
+        signingKeyRing = new SigningKeyRing(new JwtSigningProperties(), mock(SigningKeyRepository.class), clock);
+        ReflectionTestUtils.setField(signingKeyRing, "secret", SECRET);
+        signingKeyRing.init();
+
+        tokenDenyList = new TokenDenyList(mock(TokenRevocationRepository.class),
+                new TokenRevocationProperties(), clock, new SimpleMeterRegistry());
+        sharedCache = new InProcessIntrospectionCache(new SharedIntrospectionCacheProperties(), clock);
+    }
+
+    @Test
+    void eachTokenIsVerifiedOnceAcrossReplicas() {
+        List<Replica> replicas = replicas(4);
+        String token = replicas.get(0).jwtService().generateToken("shared@example.com", EnumSet.of(Role.USER, Role.ADMIN));
+
+        for (Replica replica : replicas) {
+            var result = replica.jwtService().validateToken(token);
+            assertThat(result.isValid()).isTrue();
+            assertThat(result.getRoles()).containsExactlyInAnyOrder(Role.USER, Role.ADMIN);
+        }
+
+        assertThat(replicas.stream().mapToLong(Replica::verifications).sum()).isEqualTo(1);
+        assertThat(replicas.get(3).meterRegistry().get("jwt.shared.cache.requests")
+                .tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sharedClaimsAreNotServedPastTheTokenExpiry() {
+        List<Replica> replicas = replicas(2);
+        String token = replicas.get(0).jwtService().generateToken("expiring@example.com", EnumSet.of(Role.USER));
+        replicas.get(0).jwtService().validateToken(token);
+
+        clock.advance(Duration.ofMinutes(16));
+
+        assertThat(replicas.get(1).jwtService().validateToken(token).getError()).isEqualTo("Token is expired");
+    }
+
+    @Test
+    void revocationIsBroadcastAndNotRepublished() {
+        List<Replica> replicas = replicas(3);
+        JwtService first = replicas.get(0).jwtService();
+        String token = first.generateToken("revoked@example.com", EnumSet.of(Role.USER));
+        replicas.get(0).jwtService().validateToken(token);
+        replicas.get(1).jwtService().validateToken(token);
+        assertThat(replicas.get(1).verifications()).isZero();
+
+        var claims = first.parseOnce(token);
+        tokenDenyList.revokeToken(claims.getTokenId(), claims.getSubject(),
+                new Date(claims.getExpiration().getTime()));
+        first.evict(token);
+
+        assertThat(replicas.get(1).jwtService().validateToken(token).getError()).isEqualTo("Token has been revoked");
+        assertThat(replicas.get(1).verifications()).isEqualTo(1);
+        assertThat(replicas.get(2).jwtService().validateToken(token).getError()).isEqualTo("Token has been revoked");
+        assertThat(replicas.get(2).verifications()).isEqualTo(1);
+    }
+
+    private List<Replica> replicas(int count) {
+        List<Replica> replicas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var meterRegistry = new SimpleMeterRegistry();
+            var jwtService = new JwtService(jwtProperties, new JwtCacheProperties(), new TokenValidationProperties(),
+                    signingKeyRing, tokenDenyList, sharedCache,
+                    new AuthMetrics(meterRegistry), meterRegistry, clock);
+            jwtService.init();
+            replicas.add(new Replica(jwtService, meterRegistry));
+        }
+        return replicas;
+    }
+
+    private record Replica(JwtService jwtService, MeterRegistry meterRegistry) {
+
+        long verifications() {
+            return meterRegistry.get("auth.stage")
+                    .tag("stage", "signature_verify")
+                    .tag("outcome", "success")
+                    .timer().count();
+        }
+    }
+}
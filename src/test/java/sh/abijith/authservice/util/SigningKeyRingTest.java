@@ -0,0 +1,216 @@
+package sh.abijith.authservice.util;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.model.SigningKey;
+import sh.abijith.authservice.repository.SigningKeyRepository;
+import sh.abijith.authservice.support.MutableClock;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SigningKeyRingTest {
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final List<SigningKey> keys = new ArrayList<>();
+    private final JwtSigningProperties signingProps = new JwtSigningProperties();
+    private final SigningKeyRepository repository = mock(SigningKeyRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        signingProps.setAlgorithm("ES256");
+        when(repository.insert(any(SigningKey.class))).thenAnswer(invocation -> {
+            keys.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findByExpiresAtAfterOrderByActivateAtDesc(any())).thenAnswer(invocation -> {
+            Date now = invocation.getArgument(0);
+            return keys.stream()
+                    .filter(key -> key.getExpiresAt().after(now))
+                    .sorted(Comparator.comparing(SigningKey::getActivateAt).reversed())
+                    .toList();
+        });
+    }
+
+    @Test
+    void rotationPublishesTheNewKeyBeforeItSignsAndKeepsTheOldOneVerifying() {
+        var ring = ring();
+        String firstKid = ring.activeKey().kid();
+        String oldToken = sign(ring.activeKey());
+        String firstVersion = ring.jwksVersion();
+
+        clock.advance(Duration.ofHours(signingProps.getRotationIntervalHours()));
+        ring.rotate();
+
+        assertThat(ring.activeKey().kid()).isEqualTo(firstKid);
+        assertThat(publishedKids(ring)).hasSize(2).contains(firstKid);
+        assertThat(ring.jwksVersion()).isNotEqualTo(firstVersion);
+
+        clock.advance(Duration.ofSeconds(signingProps.getPublishLeadSeconds()));
+        ring.rotate();
+
+        assertThat(ring.activeKey().kid()).isNotEqualTo(firstKid);
+        assertThat(parser(ring).parseClaimsJws(oldToken).getBody().getSubject()).isEqualTo("user@example.com");
+        assertThat(parser(ring).parseClaimsJws(sign(ring.activeKey())).getHeader().getKeyId())
+                .isEqualTo(ring.activeKey().kid());
+    }
+
+    @Test
+    void unknownKidIsRejected() {
+        var ring = ring();
+        KeyPair stranger = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "unknown-kid")
+                .setSubject("user@example.com")
+                .signWith(stranger.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        assertThatThrownBy(() -> parser(ring).parseClaimsJws(token))
+                .isInstanceOf(SignatureException.class)
+                .hasMessage("Unknown signing key: unknown-kid");
+    }
+
+    @Test
+    void keyAddedByAnotherInstanceIsPickedUpOnFirstUse() {
+        var ring = ring();
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        long now = clock.millis();
+        keys.add(new SigningKey("other-instance", "ES256",
+                Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                new Date(now), new Date(now + 3_600_000), new Date(now + 7_200_000)));
+        clock.advance(Duration.ofSeconds(6));
+
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "other-instance")
+                .setSubject("user@example.com")
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        assertThat(parser(ring).parseClaimsJws(token).getBody().getSubject()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void kidlessTokensAreRejectedUnlessAcceptedUntilACutoff() {
+        String legacy = Jwts.builder()
+                .setSubject("user@example.com")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        var strict = ring();
+        assertThatThrownBy(() -> parser(strict).parseClaimsJws(legacy))
+                .isInstanceOf(SignatureException.class)
+                .hasMessage("Token has no signing key id");
+
+        signingProps.setAcceptKidlessUntil(clock.instant().plus(Duration.ofMinutes(15)));
+        var draining = ring();
+        assertThat(parser(draining).parseClaimsJws(legacy).getBody().getSubject()).isEqualTo("user@example.com");
+
+        clock.advance(Duration.ofMinutes(15));
+        assertThatThrownBy(() -> parser(draining).parseClaimsJws(legacy))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void jwksVersionOnlyChangesWithThePublishedKeys() {
+        var ring = ring();
+        String version = ring.jwksVersion();
+
+        clock.advance(Duration.ofMinutes(1));
+        ring.rotate();
+        assertThat(ring.jwksVersion()).isEqualTo(version);
+
+        clock.advance(Duration.ofHours(signingProps.getRotationIntervalHours()));
+        ring.rotate();
+        assertThat(ring.jwksVersion()).isNotEqualTo(version);
+    }
+
+    @Test
+    void privateKeysAreStoredEncrypted() {
+        var ring = ring();
+
+        SigningKey stored = keys.getFirst();
+        assertThat(stored.getPrivateKey()).startsWith("v1:");
+        assertThat(stored.getPrivateKey()).doesNotContain(
+                Base64.getEncoder().encodeToString(ring.activeKey().key().getEncoded()));
+        assertThat(ring.activeKey().kid()).isEqualTo(stored.getId());
+    }
+
+    @Test
+    void keysThatCannotBeDecryptedOnlyVerify() {
+        KeyPair legacy = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        long now = clock.millis();
+        keys.add(new SigningKey("plain-text", "ES256",
+                Base64.getEncoder().encodeToString(legacy.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(legacy.getPublic().getEncoded()),
+                new Date(now), new Date(now), new Date(now + 7_200_000)));
+        String legacyToken = Jwts.builder()
+                .setHeaderParam("kid", "plain-text")
+                .setSubject("user@example.com")
+                .signWith(legacy.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        var ring = ring();
+        assertThat(ring.activeKey().kid()).isNotEqualTo("plain-text");
+        assertThat(parser(ring).parseClaimsJws(legacyToken).getBody().getSubject()).isEqualTo("user@example.com");
+
+        String firstKid = ring.activeKey().kid();
+        signingProps.setKeyEncryptionKey("another-key-encryption-key");
+        var other = ring();
+        assertThat(other.activeKey().kid()).isNotIn(firstKid, "plain-text");
+        assertThat(parser(other).parseClaimsJws(sign(ring.activeKey())).getBody().getSubject())
+                .isEqualTo("user@example.com");
+    }
+
+    private SigningKeyRing ring() {
+        var ring = new SigningKeyRing(signingProps, repository, clock);
+        ReflectionTestUtils.setField(ring, "secret", SECRET);
+        ring.init();
+        return ring;
+    }
+
+    private String sign(SigningKeyRing.ActiveKey activeKey) {
+        return Jwts.builder()
+                .setHeaderParam("kid", activeKey.kid())
+                .setSubject("user@example.com")
+                .setIssuedAt(new Date(clock.millis()))
+                .signWith(activeKey.key(), activeKey.algorithm())
+                .compact();
+    }
+
+    private JwtParser parser(SigningKeyRing ring) {
+        return Jwts.parserBuilder()
+                .setClock(() -> new Date(clock.millis()))
+                .setSigningKeyResolver(ring.resolver())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> publishedKids(SigningKeyRing ring) {
+        return ((List<Map<String, Object>>) ring.jwks().get("keys")).stream()
+                .map(jwk -> jwk.get("kid"))
+                .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package sh.abijith.authservice.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import sh.abijith.authservice.config.JwtSigningProperties;
+import sh.abijith.authservice.model.Role;
+import sh.abijith.authservice.model.SigningKey;
+import sh.abijith.authservice.repository.SigningKeyRepository;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenMinterTest {
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+    private static final long NOW = 1_700_000_000_123L;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"HS256", "RS256", "ES256"})
+    void accessTokensVerifyWithTheJjwtParser(String algorithm) {
+        SigningKeyRing signingKeyRing = signingKeyRing(algorithm);
+        var minter = new TokenMinter(signingKeyRing);
+        int roleMask = RoleMask.encode(EnumSet.of(Role.USER, Role.ADMIN));
+
+        String token = minter.accessToken("token-id", "user@example.com", roleMask, NOW, NOW + 60_000);
+        Jws<Claims> jws = parser(signingKeyRing).parseClaimsJws(token);
+
+        assertThat(jws.getHeader().getAlgorithm()).isEqualTo(algorithm);
+        assertThat(jws.getHeader().getKeyId()).isEqualTo(signingKeyRing.activeKey().kid());
+        assertThat(jws.getBody().getId()).isEqualTo("token-id");
+        assertThat(jws.getBody().getSubject()).isEqualTo("user@example.com");
+        assertThat(jws.getBody().get("roles", Integer.class)).isEqualTo(roleMask);
+        assertThat(jws.getBody().getIssuedAt().getTime()).isEqualTo(NOW / 1000 * 1000);
+        assertThat(jws.getBody().getExpiration().getTime()).isEqualTo((NOW + 60_000) / 1000 * 1000);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"HS256", "RS256", "ES256"})
+    void refreshTokensVerifyWithTheJjwtParser(String algorithm) {
+        SigningKeyRing signingKeyRing = signingKeyRing(algorithm);
+        var minter = new TokenMinter(signingKeyRing);
+
+        String token = minter.refreshToken("token-id", "user@example.com", "family-id", NOW, NOW + 60_000);
+        Claims claims = parser(signingKeyRing).parseClaimsJws(token).getBody();
+
+        assertThat(claims.getId()).isEqualTo("token-id");
+        assertThat(claims.getSubject()).isEqualTo("user@example.com");
+        assertThat(claims.get("fid", String.class)).isEqualTo("family-id");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"quote\"back\\slash@example.com", "tab\tnewline\n@example.com", "\u00fcn\u00efc\u00f8d\u00e9@ex\u00e4mple.com", "emoji\ud83d\ude00@example.com"})
+    void subjectsNeedingEscapesSurviveARoundTrip(String subject) {
+        SigningKeyRing signingKeyRing = signingKeyRing("HS256");
+        var minter = new TokenMinter(signingKeyRing);
+
+        String token = minter.accessToken("token-id", subject, 0, NOW, NOW + 60_000);
+
+        assertThat(parser(signingKeyRing).parseClaimsJws(token).getBody().getSubject()).isEqualTo(subject);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"HS256", "ES256"})
+    void concurrentVirtualThreadsShareThePoolSafely(String algorithm) throws Exception {
+        SigningKeyRing signingKeyRing = signingKeyRing(algorithm);
+        var minter = new TokenMinter(signingKeyRing);
+        JwtParser parser = parser(signingKeyRing);
+
+        List<Future<String>> subjects = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 500; i++) {
+                String subject = "user-" + i + "-" + "x".repeat(i % 64) + "@example.com";
+                subjects.add(executor.submit(() -> {
+                    String token = minter.accessToken("token-" + subject, subject, 1, NOW, NOW + 60_000);
+                    Claims claims = parser.parseClaimsJws(token).getBody();
+                    assertThat(claims.getId()).isEqualTo("token-" + subject);
+                    return claims.getSubject();
+                }));
+            }
+        }
+
+        for (int i = 0; i < subjects.size(); i++) {
+            assertThat(subjects.get(i).get()).isEqualTo("user-" + i + "-" + "x".repeat(i % 64) + "@example.com");
+        }
+    }
+
+    private static JwtParser parser(SigningKeyRing signingKeyRing) {
+        return Jwts.parserBuilder()
+                .setSigningKeyResolver(signingKeyRing.resolver())
+                .setClock(() -> new Date(NOW))
+                .build();
+    }
+
+    private static SigningKeyRing signingKeyRing(String algorithm) {
+        List<SigningKey> keys = new ArrayList<>();
+        SigningKeyRepository repository = mock(SigningKeyRepository.class);
+        when(repository.insert(any(SigningKey.class))).thenAnswer(invocation -> {
+            keys.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findByExpiresAtAfterOrderByActivateAtDesc(any())).thenAnswer(invocation -> keys.stream()
+                .sorted(Comparator.comparing(SigningKey::getActivateAt).reversed())
+                .toList());
+
+        var signingProperties = new JwtSigningProperties();
+        signingProperties.setAlgorithm(algorithm);
+        var signingKeyRing = new SigningKeyRing(signingProperties, repository, Clock.systemUTC());
+        ReflectionTestUtils.setField(signingKeyRing, "secret", SECRET);
+        signingKeyRing.init();
+        return signingKeyRing;
+    }
+}